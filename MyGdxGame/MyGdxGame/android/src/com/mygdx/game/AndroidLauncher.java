@@ -1,6 +1,10 @@
 package com.mygdx.game;
 
+import android.os.Build;
 import android.os.Bundle;
+import android.os.Debug;
+import android.os.Process;
+import android.os.SystemClock;
 
 import com.badlogic.gdx.backends.android.AndroidApplication;
 import com.badlogic.gdx.backends.android.AndroidApplicationConfiguration;
@@ -11,6 +15,39 @@ public class AndroidLauncher extends AndroidApplication {
 	protected void onCreate (Bundle savedInstanceState) {
 		super.onCreate(savedInstanceState);
 		AndroidApplicationConfiguration config = new AndroidApplicationConfiguration();
-		initialize(new MyGdxGame(), config);
+		MyGdxGame game = new MyGdxGame(processStartNanos());
+		game.profiler.setAllocationCounter(new AllocationCounter());
+		initialize(game, config);
+	}
+
+	// The runtime only counts allocations between start() and stop(), while the profiler is shown
+	@SuppressWarnings("deprecation")
+	private static class AllocationCounter implements FrameProfiler.AllocationCounter {
+		@Override
+		public void start() {
+			Debug.resetThreadAllocSize();
+			Debug.startAllocCounting();
+		}
+
+		@Override
+		public void stop() {
+			Debug.stopAllocCounting();
+		}
+
+		@Override
+		public long allocatedBytes() {
+			return Debug.getThreadAllocSize();
+		}
+	}
+
+	// When the process was started, on the System.nanoTime() clock, so the game can log the
+	// whole cold start. Older Android versions don't report it; count from onCreate there.
+	private static long processStartNanos() {
+		long now = System.nanoTime();
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+			return now;
+		}
+		long sinceStartMillis = SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime();
+		return now - sinceStartMillis * 1000000L;
 	}
 }
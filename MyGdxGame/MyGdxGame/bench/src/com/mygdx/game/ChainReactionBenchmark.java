@@ -0,0 +1,104 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// One op sets off one bomb in a square of bombs packed so close that every one of them goes off
+// in the same pass, in microseconds. Bombs sit on every crossing of the arena's open rows and
+// columns, two tiles apart, so their crosses overlap from radius 1 and they chain from radius 2.
+//
+// A chain is far too short to time on its own, and placing its bombs costs more than setting
+// them off, so every iteration readies BATCH arenas untimed and one timed call sets off the
+// chain in each of them.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// Single shots need many warmup iterations before the chain code is compiled
+@Warmup(iterations = 500)
+@Measurement(iterations = 200)
+@Fork(1)
+public class ChainReactionBenchmark {
+    private static final int BATCH = 64;
+
+    @Param({"10", "100", "1000"})
+    public int bombs;
+
+    @Param({"2", "8"})
+    public int radius;
+
+    private final TiledMap[] tiledMaps = new TiledMap[BATCH];
+    private final GameWorld[] worlds = new GameWorld[BATCH];
+    private final Bomb[] firsts = new Bomb[BATCH];
+
+    // Each arena just fits the square. The first chain clears the destructible blocks its blasts
+    // reach, so the measured ones all see the same open arena
+    @Setup(Level.Trial)
+    public void setUp() {
+        HeadlessLauncher.ensureBackend();
+        int size = 2 * side() + 1;
+        for (int i = 0; i < BATCH; i++) {
+            tiledMaps[i] = HeadlessLauncher.loadMap(String.valueOf(size), i + 1);
+            worlds[i] = new SimulationScenario(tiledMaps[i], 0, 0, 1).getWorld();
+        }
+        placeBombs();
+        chain();
+    }
+
+    @Setup(Level.Iteration)
+    public void placeBombs() {
+        int side = side();
+        for (int w = 0; w < BATCH; w++) {
+            GameWorld world = worlds[w];
+            world.reset(1);
+            int height = world.getGrid().getHeight();
+            firsts[w] = null;
+            for (int i = 0; i < bombs; i++) {
+                // Odd columns, and odd rows counted from the top like MapGenerator does
+                int x = 1 + 2 * (i % side);
+                int y = height - 2 - 2 * (i / side);
+                Bomb bomb = world.placeBomb(x, y, radius);
+                if (firsts[w] == null) firsts[w] = bomb;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (TiledMap tiledMap : tiledMaps) {
+            tiledMap.dispose();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int chain() {
+        int left = 0;
+        for (int w = 0; w < BATCH; w++) {
+            Detonator detonator = worlds[w].getDetonator();
+            detonator.trigger(firsts[w]);
+            detonator.resolve();
+            left += worlds[w].getBombs().size;
+        }
+        return left;
+    }
+
+    private int side() {
+        return (int) Math.ceil(Math.sqrt(bombs));
+    }
+}
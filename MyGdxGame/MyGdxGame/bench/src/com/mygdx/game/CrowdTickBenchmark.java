@@ -0,0 +1,69 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Large wave modes: one op is one tick with tens of thousands of enemies, in milliseconds, so
+// the score compares directly with the 16 ms a frame has. threads 1 runs the enemy pass on the
+// benchmark thread, more splits it with ForkJoinScheduler.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrowdTickBenchmark {
+
+    @Param({"256", "512"})
+    public String map;
+
+    @Param({"10000", "50000"})
+    public int enemies;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    private TiledMap tiledMap;
+    private SimulationScenario scenario;
+    private ForkJoinScheduler scheduler;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        HeadlessLauncher.ensureBackend();
+        tiledMap = HeadlessLauncher.loadMap(map, 1);
+        scenario = new SimulationScenario(tiledMap, enemies, 100, 1);
+        if (threads > 1) {
+            scheduler = new ForkJoinScheduler(threads);
+            scenario.getWorld().setScheduler(scheduler);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+        tiledMap.dispose();
+    }
+
+    @Benchmark
+    public void tick() {
+        scenario.tick();
+    }
+}
@@ -0,0 +1,45 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.utils.Array;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Builds an enemy store with room for CAPACITY enemies, counted as one op per enemy, so the gc
+// profiler's gc.alloc.rate.norm is the heap each enemy costs. When every enemy was its own
+// object this was 232 bytes; with shared EnemyTypes it was 80, and with the arrays it is 22
+// plus the array headers spread over the store.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnemyFootprintBenchmark {
+    private static final int CAPACITY = 1024;
+
+    private Array<EnemyType> types;
+
+    @Setup
+    public void setUp() {
+        HeadlessLauncher.ensureBackend();
+        types = HeadlessLauncher.loadEnemyTypes();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CAPACITY)
+    public EnemyStore create() {
+        return new EnemyStore(types, CAPACITY);
+    }
+}
@@ -0,0 +1,48 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// One op loads a level the way the game does before its first tick: the map, then the tile
+// grid built from it. Compares the TMX source with the compiled .bmap; the gc profiler gives
+// the garbage per load. Neither creates textures.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapLoadBenchmark {
+
+    @Param({"map/map.tmx", "map/compiled/map.bmap"})
+    public String map;
+
+    @Setup
+    public void setUp() {
+        HeadlessLauncher.ensureBackend();
+    }
+
+    @Benchmark
+    public TileGrid load() {
+        TiledMap tiledMap = HeadlessLauncher.loadMap(map, 1);
+        TileGrid grid = new TileGrid((TiledMapTileLayer) tiledMap.getLayers().get("Maze"),
+                (TiledMapTileLayer) tiledMap.getLayers().get("Collision"),
+                tiledMap.getProperties().get(BinaryMapLoader.TILE_FLAGS, byte[].class));
+        tiledMap.dispose();
+        return grid;
+    }
+}
@@ -0,0 +1,60 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// One op is one simulation tick, so the score is ticks per second. Run with the gc profiler
+// (the default in bench/build.gradle) to get bytes allocated per tick.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorldTickBenchmark {
+
+    // A TMX path, or the side length of a generated arena
+    @Param({"map/map.tmx", "64", "256", "512"})
+    public String map;
+
+    @Param({"2", "50", "500"})
+    public int enemies;
+
+    @Param({"0", "10", "100"})
+    public int bombs;
+
+    private TiledMap tiledMap;
+    private SimulationScenario scenario;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        HeadlessLauncher.ensureBackend();
+        tiledMap = HeadlessLauncher.loadMap(map, 1);
+        scenario = new SimulationScenario(tiledMap, enemies, bombs, 1);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        tiledMap.dispose();
+    }
+
+    @Benchmark
+    public void tick() {
+        scenario.tick();
+    }
+}
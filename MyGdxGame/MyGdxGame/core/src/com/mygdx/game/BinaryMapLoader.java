@@ -0,0 +1,254 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+
+// Loads the .bmap files MapCompiler (headless module) builds from the TMX maps. The whole file
+// is read through one ByteBuffer, memory-mapped where the backend allows it, so a level loads
+// with a few array reads instead of an XML parse. Tiles get their regions from the atlas in the
+// map's "atlas" property, as with AtlasTmxMapLoader; maps loaded without an atlas have no textures.
+//
+// Layout, big-endian; strings are a short byte count followed by UTF-8:
+//   int magic, short version
+//   short property count, then per property: string name, byte type, value
+//   int width, int height, int tile width, int tile height
+//   short tileset count, then per tileset: string name, int first id, short tile count, then
+//     per tile: short local id, string atlas region, byte flags
+//   short layer count, then per layer: string name, byte visible, width * height short tile ids
+//   int flag count, then the TileGrid flags of every cell (0 if the map has no Collision layer)
+//   short spawn count, then per spawn: string type, short tile x, short tile y, then its
+//     properties laid out like the map's
+public class BinaryMapLoader extends AsynchronousAssetLoader<TiledMap, BinaryMapLoader.Parameters> {
+    public static final int MAGIC = 0x424D4150; // "BMAP"
+    public static final int VERSION = 2;
+
+    // Property value types
+    public static final byte STRING = 0;
+    public static final byte INT = 1;
+    public static final byte FLOAT = 2;
+    public static final byte BOOLEAN = 3;
+
+    // Map property holding the precomputed TileGrid flags, as a byte[]
+    public static final String TILE_FLAGS = "tileFlags";
+    // Object layer the spawn points are loaded into, one object per spawn named after its type
+    public static final String SPAWN_LAYER = Spawner.LAYER;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    public static class Parameters extends AssetLoaderParameters<TiledMap> {
+    }
+
+    // Carried from getDependencies() to loadAsync() to loadSync(), like TmxMapLoader does
+    private ByteBuffer buffer;
+    private TiledMap map;
+    private String atlasPath;
+
+    public BinaryMapLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    // Loads a map straight away, outside the asset manager; tiles get regions only if an atlas is given
+    public static TiledMap load(FileHandle file, TextureAtlas atlas) {
+        ByteBuffer buffer = open(file);
+        TiledMap map = new TiledMap();
+        readProperties(buffer, map.getProperties());
+        readBody(buffer, map, atlas);
+        return map;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, Parameters parameter) {
+        buffer = open(file);
+        map = new TiledMap();
+        readProperties(buffer, map.getProperties());
+
+        Array<AssetDescriptor> dependencies = new Array<>();
+        String atlas = map.getProperties().get("atlas", String.class);
+        atlasPath = atlas == null ? null : relativeTo(file, atlas).path();
+        if (atlasPath != null) {
+            dependencies.add(new AssetDescriptor<>(atlasPath, TextureAtlas.class));
+        }
+        return dependencies;
+    }
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+        TextureAtlas atlas = atlasPath == null ? null : manager.get(atlasPath, TextureAtlas.class);
+        readBody(buffer, map, atlas);
+        buffer = null;
+    }
+
+    @Override
+    public TiledMap loadSync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+        TiledMap result = map;
+        map = null;
+        return result;
+    }
+
+    // Maps the file where the backend can (desktop, headless and uncompressed Android assets) and
+    // reads it into memory otherwise
+    private static ByteBuffer open(FileHandle file) {
+        ByteBuffer buffer;
+        try {
+            buffer = file.map();
+        } catch (GdxRuntimeException e) {
+            buffer = ByteBuffer.wrap(file.readBytes());
+        }
+        buffer.order(ByteOrder.BIG_ENDIAN);
+
+        if (buffer.getInt() != MAGIC) {
+            throw new GdxRuntimeException("Not a compiled map: " + file);
+        }
+        int version = buffer.getShort();
+        if (version != VERSION) {
+            throw new GdxRuntimeException("Compiled map " + file + " has version " + version + ", expected " + VERSION + "; recompile the maps");
+        }
+        return buffer;
+    }
+
+    private static void readProperties(ByteBuffer buffer, MapProperties properties) {
+        int count = buffer.getShort();
+        for (int i = 0; i < count; i++) {
+            String name = readString(buffer);
+            byte type = buffer.get();
+            switch (type) {
+                case STRING:
+                    properties.put(name, readString(buffer));
+                    break;
+                case INT:
+                    properties.put(name, buffer.getInt());
+                    break;
+                case FLOAT:
+                    properties.put(name, buffer.getFloat());
+                    break;
+                case BOOLEAN:
+                    properties.put(name, buffer.get() != 0);
+                    break;
+                default:
+                    throw new GdxRuntimeException("Unknown property type " + type + " for " + name);
+            }
+        }
+    }
+
+    private static void readBody(ByteBuffer buffer, TiledMap map, TextureAtlas atlas) {
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        int tileWidth = buffer.getInt();
+        int tileHeight = buffer.getInt();
+
+        // Tile ids index straight into this; placed cells never change, so one cell per tile id is shared
+        TiledMapTileLayer.Cell[] cells = new TiledMapTileLayer.Cell[1];
+        int tileSetCount = buffer.getShort();
+        for (int i = 0; i < tileSetCount; i++) {
+            TiledMapTileSet tileSet = new TiledMapTileSet();
+            tileSet.setName(readString(buffer));
+            int firstId = buffer.getInt();
+            tileSet.getProperties().put("firstgid", firstId);
+            int tileCount = buffer.getShort();
+            for (int j = 0; j < tileCount; j++) {
+                int id = firstId + buffer.getShort();
+                String regionName = readString(buffer);
+                int flags = buffer.get();
+
+                TextureRegion region = null;
+                if (atlas != null) {
+                    region = atlas.findRegion(regionName);
+                    if (region == null) throw new GdxRuntimeException("Tileset atlasRegion not found: " + regionName);
+                }
+                TiledMapTile tile = new StaticTiledMapTile(region);
+                tile.setId(id);
+                if ((flags & TileGrid.DESTRUCTIBLE) != 0) {
+                    tile.getProperties().put("destructible", true);
+                }
+                if ((flags & TileGrid.BLOCKS_BLAST) != 0) {
+                    tile.getProperties().put("blocksBlast", true);
+                }
+                tileSet.putTile(id, tile);
+
+                if (id >= cells.length) {
+                    TiledMapTileLayer.Cell[] grown = new TiledMapTileLayer.Cell[Math.max(id + 1, cells.length * 2)];
+                    System.arraycopy(cells, 0, grown, 0, cells.length);
+                    cells = grown;
+                }
+                cells[id] = new TiledMapTileLayer.Cell().setTile(tile);
+            }
+            map.getTileSets().addTileSet(tileSet);
+        }
+
+        int layerCount = buffer.getShort();
+        for (int i = 0; i < layerCount; i++) {
+            TiledMapTileLayer layer = new TiledMapTileLayer(width, height, tileWidth, tileHeight);
+            layer.setName(readString(buffer));
+            layer.setVisible(buffer.get() != 0);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int id = buffer.getShort();
+                    if (id != 0) {
+                        layer.setCell(x, y, cells[id]);
+                    }
+                }
+            }
+            map.getLayers().add(layer);
+        }
+
+        byte[] flags = new byte[buffer.getInt()];
+        buffer.get(flags);
+        if (flags.length > 0) {
+            map.getProperties().put(TILE_FLAGS, flags);
+        }
+
+        MapLayer spawns = new MapLayer();
+        spawns.setName(SPAWN_LAYER);
+        int spawnCount = buffer.getShort();
+        for (int i = 0; i < spawnCount; i++) {
+            String type = readString(buffer);
+            int x = buffer.getShort();
+            int y = buffer.getShort();
+            RectangleMapObject spawn = new RectangleMapObject(x * tileWidth, y * tileHeight, tileWidth, tileHeight);
+            spawn.setName(type);
+            readProperties(buffer, spawn.getProperties());
+            spawns.getObjects().add(spawn);
+        }
+        map.getLayers().add(spawns);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    // Resolves a path relative to the directory of the given file, like Tiled's relative paths
+    private static FileHandle relativeTo(FileHandle file, String path) {
+        FileHandle result = file.parent();
+        for (String part : path.split("[\\\\/]")) {
+            if (part.equals("..")) {
+                result = result.parent();
+            } else if (!part.isEmpty() && !part.equals(".")) {
+                result = result.child(part);
+            }
+        }
+        return result;
+    }
+}
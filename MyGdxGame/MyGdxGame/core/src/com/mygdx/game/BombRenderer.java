@@ -0,0 +1,60 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+public class BombRenderer {
+    private static final int TILE_SIZE = Bomb.TILE_SIZE;
+
+    private TextureRegion bombTexture;
+    private TextureRegion explosionTexture;
+    private TextureRegion powerUpTexture;
+
+    // Bombs share the player's atlas, so the whole player pass draws from one texture
+    public static void queue(AssetManager assets) {
+        assets.load(PlayerRenderer.ATLAS, TextureAtlas.class);
+    }
+
+    public BombRenderer(AssetManager assets) {
+        TextureAtlas atlas = assets.get(PlayerRenderer.ATLAS, TextureAtlas.class);
+        bombTexture = atlas.findRegion("bomb");
+        explosionTexture = atlas.findRegion("explosion");
+        powerUpTexture = atlas.findRegion("dynamite");
+    }
+
+    public void renderBomb(SpriteBatch batch, Bomb bomb, Rectangle view) {
+        Vector2 position = bomb.getPosition();
+        float x = position.x * TILE_SIZE;
+        float y = position.y * TILE_SIZE;
+        if (!bomb.isExploded() && WorldRenderer.isVisible(view, x, y, TILE_SIZE, TILE_SIZE)) {
+            batch.draw(bombTexture, x, y, TILE_SIZE, TILE_SIZE);
+        }
+    }
+
+    // A power-up for bigger blasts lying on the tile
+    public void renderPowerUp(SpriteBatch batch, int tileX, int tileY, Rectangle view) {
+        float x = tileX * TILE_SIZE;
+        float y = tileY * TILE_SIZE;
+        if (WorldRenderer.isVisible(view, x, y, TILE_SIZE, TILE_SIZE)) {
+            batch.draw(powerUpTexture, x, y, TILE_SIZE, TILE_SIZE);
+        }
+    }
+
+    public void renderBlast(SpriteBatch batch, Bomb bomb, Rectangle view) {
+        if (!bomb.isExploded() || bomb.getTimer() >= bomb.getExplosionDuration()) {
+            return;
+        }
+        // The blast footprint was worked out when the bomb went off
+        for (int i = 0; i < bomb.getBlastCellCount(); i++) {
+            float x = bomb.getBlastCellX(i) * TILE_SIZE;
+            float y = bomb.getBlastCellY(i) * TILE_SIZE;
+            if (WorldRenderer.isVisible(view, x, y, TILE_SIZE, TILE_SIZE)) {
+                batch.draw(explosionTexture, x, y, TILE_SIZE, TILE_SIZE);
+            }
+        }
+    }
+}
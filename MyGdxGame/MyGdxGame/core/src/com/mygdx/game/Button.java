@@ -1,7 +1,6 @@
 package com.mygdx.game;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 
 public class Button {
@@ -10,12 +9,12 @@ public class Button {
     float y;
     float w;
     float h;
-    boolean isDown;
+    boolean isDown; // Set by the ButtonInput the button belongs to
 
-    Texture textureUp;
-    Texture textureDown;
+    TextureRegion textureUp;
+    TextureRegion textureDown;
 
-    public Button(float x, float y, float w, float h, Texture textureUp, Texture textureDown) {
+    public Button(float x, float y, float w, float h, TextureRegion textureUp, TextureRegion textureDown) {
         this.x = x;
         this.y = y;
         this.w = w;
@@ -26,16 +25,9 @@ public class Button {
         this.textureDown = textureDown;
     }
 
-    public void update(boolean checkTouch, int touchX, int touchY) {
-        isDown = false;
-
-        if (checkTouch) {
-            int h2 = Gdx.graphics.getHeight();
-            //Touch coordinates have origin in top-left instead of bottom left
-            if (touchX >= x && touchX <= x + w && h2 - touchY >= y && h2 - touchY <= y + h) {
-                isDown = true;
-            }
-        }
+    // Takes a point in screen coordinates with the origin bottom-left, like the button's position
+    public boolean contains(float touchX, float touchY) {
+        return touchX >= x && touchX <= x + w && touchY >= y && touchY <= y + h;
     }
 
     public void draw(SpriteBatch batch) {
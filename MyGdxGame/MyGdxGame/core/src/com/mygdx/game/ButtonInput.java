@@ -0,0 +1,165 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntIntMap;
+
+import java.util.Arrays;
+
+// Turns touch and key events into the state of one screen's buttons. A touch is hit-tested when
+// it goes down (and again when it slides onto another button), and the button stays held by
+// that pointer until it lifts, so a direction and the bomb button can be held at once.
+//
+// Events are queued with their timestamp rather than applied straight away. update(time) applies
+// the ones that happened up to the given time, so each simulation tick sees the input of its own
+// moment, and a tap that starts and ends between two ticks still counts as a press.
+public class ButtonInput extends InputAdapter {
+    private static final int MAX_POINTERS = 20;
+    private static final int QUEUE_SIZE = 64;
+    private static final int NONE = -1;
+
+    private final Array<Button> buttons = new Array<>();
+    private final IntIntMap keyButtons = new IntIntMap();
+    private final int[] pointerButtons = new int[MAX_POINTERS];
+    private int[] holds = new int[0]; // Pointers and keys holding each button
+    private boolean[] pressed = new boolean[0]; // Went down during the last update()
+
+    // Ring buffer of events: the button, whether it went down, and when
+    private final int[] eventButtons = new int[QUEUE_SIZE];
+    private final boolean[] eventDown = new boolean[QUEUE_SIZE];
+    private final long[] eventTimes = new long[QUEUE_SIZE];
+    private int head;
+    private int count;
+
+    public ButtonInput() {
+        Arrays.fill(pointerButtons, NONE);
+    }
+
+    public void add(Button button) {
+        buttons.add(button);
+        holds = Arrays.copyOf(holds, buttons.size);
+        pressed = Arrays.copyOf(pressed, buttons.size);
+    }
+
+    // Lets a key hold the button too; the button must already be added
+    public void mapKey(int keycode, Button button) {
+        keyButtons.put(keycode, buttons.indexOf(button, true));
+    }
+
+    // Applies the events that happened up to time, a System.nanoTime() value. Events without a
+    // timestamp (0) apply at the first update.
+    public void update(long time) {
+        Arrays.fill(pressed, false);
+        while (count > 0 && eventTimes[head] <= time) {
+            applyNext();
+        }
+        for (int i = 0; i < buttons.size; i++) {
+            buttons.get(i).isDown = holds[i] > 0 || pressed[i];
+        }
+    }
+
+    // Whether the button went down during the last update()
+    public boolean wasPressed(Button button) {
+        int i = buttons.indexOf(button, true);
+        return i >= 0 && pressed[i];
+    }
+
+    // Forgets every event and hold, e.g. when the screen comes back with other touches going on
+    public void reset() {
+        Arrays.fill(pointerButtons, NONE);
+        Arrays.fill(holds, 0);
+        Arrays.fill(pressed, false);
+        head = 0;
+        count = 0;
+        for (Button button : buttons) {
+            button.isDown = false;
+        }
+    }
+
+    @Override
+    public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+        if (pointer >= MAX_POINTERS) return false;
+        int hit = hit(screenX, screenY);
+        pointerButtons[pointer] = hit;
+        if (hit == NONE) return false;
+        queue(hit, true);
+        return true;
+    }
+
+    @Override
+    public boolean touchDragged(int screenX, int screenY, int pointer) {
+        if (pointer >= MAX_POINTERS) return false;
+        int hit = hit(screenX, screenY);
+        int previous = pointerButtons[pointer];
+        if (hit == previous) return hit != NONE;
+        // Sliding a finger across the pad changes direction without lifting it
+        if (previous != NONE) queue(previous, false);
+        if (hit != NONE) queue(hit, true);
+        pointerButtons[pointer] = hit;
+        return true;
+    }
+
+    @Override
+    public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+        if (pointer >= MAX_POINTERS) return false;
+        int previous = pointerButtons[pointer];
+        pointerButtons[pointer] = NONE;
+        if (previous == NONE) return false;
+        queue(previous, false);
+        return true;
+    }
+
+    @Override
+    public boolean touchCancelled(int screenX, int screenY, int pointer, int button) {
+        return touchUp(screenX, screenY, pointer, button);
+    }
+
+    @Override
+    public boolean keyDown(int keycode) {
+        int i = keyButtons.get(keycode, NONE);
+        if (i == NONE) return false;
+        queue(i, true);
+        return true;
+    }
+
+    @Override
+    public boolean keyUp(int keycode) {
+        int i = keyButtons.get(keycode, NONE);
+        if (i == NONE) return false;
+        queue(i, false);
+        return true;
+    }
+
+    // The button under a touch; touch coordinates have their origin top-left, buttons bottom-left
+    private int hit(int screenX, int screenY) {
+        float y = Gdx.graphics.getHeight() - screenY;
+        for (int i = buttons.size - 1; i >= 0; i--) {
+            if (buttons.get(i).contains(screenX, y)) return i;
+        }
+        return NONE;
+    }
+
+    private void queue(int button, boolean down) {
+        if (count == QUEUE_SIZE) {
+            applyNext(); // Nobody is updating; keep the latest events
+        }
+        int tail = (head + count) % QUEUE_SIZE;
+        eventButtons[tail] = button;
+        eventDown[tail] = down;
+        eventTimes[tail] = Gdx.input.getCurrentEventTime();
+        count++;
+    }
+
+    private void applyNext() {
+        int button = eventButtons[head];
+        if (eventDown[head]) {
+            holds[button]++;
+            pressed[button] = true;
+        } else if (holds[button] > 0) {
+            holds[button]--;
+        }
+        head = (head + 1) % QUEUE_SIZE;
+        count--;
+    }
+}
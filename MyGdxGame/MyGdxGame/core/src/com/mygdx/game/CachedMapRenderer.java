@@ -0,0 +1,221 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.Arrays;
+
+// Draws the visible tile layers from geometry baked into a SpriteCache, instead of re-emitting
+// every tile vertex each frame like OrthogonalTiledMapRenderer. The map is split into square
+// chunks. Only chunks in or next to the camera's view are baked, into a fixed pool of cache
+// slots sized for the view, so memory doesn't grow with the map. Chunks about to scroll in are
+// baked a few per frame ahead of time; a blast only re-bakes the chunk it touched.
+public class CachedMapRenderer implements Disposable {
+    public static final int CHUNK_TILES = 32;
+    private static final int MARGIN_CHUNKS = 1; // Baked around the view so scrolling never waits
+    private static final int BAKES_PER_FRAME = 2; // For chunks that are near but not yet visible
+    private static final int NONE = -1;
+
+    private final Array<TiledMapTileLayer> layers = new Array<>();
+    private final int width;
+    private final int height;
+    private final float tileWidth;
+    private final float tileHeight;
+    private final int chunksX;
+    private final int chunksY;
+
+    private final SpriteCache cache;
+    // Every slot is first filled to capacity, so any chunk can be baked into any slot later
+    private final int[] slotCacheIds;
+    private final int[] slotChunks;
+    private final int[] chunkSlots;
+    private final boolean[] dirty;
+
+    // Chunk range of the current view, and of the view plus margin
+    private int minX, minY, maxX, maxY;
+    private int nearMinX, nearMinY, nearMaxX, nearMaxY;
+
+    public CachedMapRenderer(TiledMap map, float viewWidth, float viewHeight) {
+        for (MapLayer layer : map.getLayers()) {
+            if (layer instanceof TiledMapTileLayer && layer.isVisible()) {
+                layers.add((TiledMapTileLayer) layer);
+            }
+        }
+        TiledMapTileLayer first = layers.first();
+        width = first.getWidth();
+        height = first.getHeight();
+        tileWidth = first.getTileWidth();
+        tileHeight = first.getTileHeight();
+        chunksX = (width + CHUNK_TILES - 1) / CHUNK_TILES;
+        chunksY = (height + CHUNK_TILES - 1) / CHUNK_TILES;
+
+        // Enough slots for the chunks a view can straddle plus the margin on every side
+        int viewChunksX = (int) Math.ceil(viewWidth / (CHUNK_TILES * tileWidth)) + 1 + 2 * MARGIN_CHUNKS;
+        int viewChunksY = (int) Math.ceil(viewHeight / (CHUNK_TILES * tileHeight)) + 1 + 2 * MARGIN_CHUNKS;
+        int slots = Math.min(chunksX, viewChunksX) * Math.min(chunksY, viewChunksY);
+        int capacity = CHUNK_TILES * CHUNK_TILES * layers.size;
+
+        cache = new SpriteCache(slots * capacity, false);
+        slotCacheIds = new int[slots];
+        slotChunks = new int[slots];
+        chunkSlots = new int[chunksX * chunksY];
+        dirty = new boolean[chunksX * chunksY];
+        Arrays.fill(slotChunks, NONE);
+        Arrays.fill(chunkSlots, NONE);
+
+        TextureRegion filler = findAnyRegion();
+        for (int slot = 0; slot < slots; slot++) {
+            cache.beginCache();
+            for (int i = 0; filler != null && i < capacity; i++) {
+                cache.add(filler, 0, 0, 0, 0);
+            }
+            slotCacheIds[slot] = cache.endCache();
+        }
+        setView(0, 0, viewWidth, viewHeight);
+    }
+
+    // Marks the chunk holding the cell for a re-bake before it is next drawn
+    public void invalidate(int tileX, int tileY) {
+        if (tileX < 0 || tileX >= width || tileY < 0 || tileY >= height) return;
+        dirty[tileX / CHUNK_TILES + (tileY / CHUNK_TILES) * chunksX] = true;
+    }
+
+    public void render(OrthographicCamera camera) {
+        setView(camera.position.x, camera.position.y, camera.viewportWidth * camera.zoom, camera.viewportHeight * camera.zoom);
+        // Visible chunks are baked now; the ones around them a few per frame
+        bakeChunks(true, BAKES_PER_FRAME);
+
+        cache.setProjectionMatrix(camera.combined);
+        cache.begin();
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                int slot = chunkSlots[x + y * chunksX];
+                if (slot != NONE) {
+                    cache.draw(slotCacheIds[slot]);
+                }
+            }
+        }
+        cache.end();
+    }
+
+    // Points the renderer at a view, given by its center and size in world units, and frees
+    // the slots of chunks that drifted out of range
+    public void setView(float centerX, float centerY, float viewWidth, float viewHeight) {
+        float chunkWidth = CHUNK_TILES * tileWidth;
+        float chunkHeight = CHUNK_TILES * tileHeight;
+        minX = Math.max(0, (int) Math.floor((centerX - viewWidth / 2) / chunkWidth));
+        minY = Math.max(0, (int) Math.floor((centerY - viewHeight / 2) / chunkHeight));
+        maxX = Math.min(chunksX - 1, (int) Math.floor((centerX + viewWidth / 2) / chunkWidth));
+        maxY = Math.min(chunksY - 1, (int) Math.floor((centerY + viewHeight / 2) / chunkHeight));
+
+        nearMinX = Math.max(0, minX - MARGIN_CHUNKS);
+        nearMinY = Math.max(0, minY - MARGIN_CHUNKS);
+        nearMaxX = Math.min(chunksX - 1, maxX + MARGIN_CHUNKS);
+        nearMaxY = Math.min(chunksY - 1, maxY + MARGIN_CHUNKS);
+
+        for (int slot = 0; slot < slotChunks.length; slot++) {
+            int chunk = slotChunks[slot];
+            if (chunk == NONE) continue;
+            int x = chunk % chunksX;
+            int y = chunk / chunksX;
+            if (x < nearMinX || x > nearMaxX || y < nearMinY || y > nearMaxY) {
+                slotChunks[slot] = NONE;
+                chunkSlots[chunk] = NONE;
+            }
+        }
+    }
+
+    // Bakes at most limit chunks of the current view and its margin, so a renderer can be
+    // readied ahead of its first frame. Returns true once nothing is left to bake.
+    public boolean prepare(int limit) {
+        return bakeChunks(false, limit);
+    }
+
+    private boolean bakeChunks(boolean visibleNow, int limit) {
+        int bakes = 0;
+        boolean done = true;
+        for (int y = nearMinY; y <= nearMaxY; y++) {
+            for (int x = nearMinX; x <= nearMaxX; x++) {
+                int chunk = x + y * chunksX;
+                if (chunkSlots[chunk] != NONE && !dirty[chunk]) continue;
+                boolean visible = x >= minX && x <= maxX && y >= minY && y <= maxY;
+                if (bakes >= limit && !(visibleNow && visible)) {
+                    done = false;
+                    continue;
+                }
+                bake(chunk);
+                bakes++;
+            }
+        }
+        return done;
+    }
+
+    private void bake(int chunk) {
+        int slot = chunkSlots[chunk];
+        if (slot == NONE) {
+            slot = findFreeSlot();
+            if (slot == NONE) return;
+            slotChunks[slot] = chunk;
+            chunkSlots[chunk] = slot;
+        }
+        dirty[chunk] = false;
+
+        cache.beginCache(slotCacheIds[slot]);
+        addTiles(chunk);
+        cache.endCache();
+    }
+
+    private int findFreeSlot() {
+        for (int slot = 0; slot < slotChunks.length; slot++) {
+            if (slotChunks[slot] == NONE) return slot;
+        }
+        return NONE;
+    }
+
+    // Layers go in map order, so within a chunk the upper layers still draw over the lower ones
+    private void addTiles(int chunk) {
+        int startX = (chunk % chunksX) * CHUNK_TILES;
+        int startY = (chunk / chunksX) * CHUNK_TILES;
+        for (TiledMapTileLayer layer : layers) {
+            for (int y = startY; y < Math.min(startY + CHUNK_TILES, height); y++) {
+                for (int x = startX; x < Math.min(startX + CHUNK_TILES, width); x++) {
+                    TextureRegion region = regionAt(layer, x, y);
+                    if (region != null) {
+                        cache.add(region, x * tileWidth, y * tileHeight, tileWidth, tileHeight);
+                    }
+                }
+            }
+        }
+    }
+
+    private TextureRegion findAnyRegion() {
+        for (TiledMapTileLayer layer : layers) {
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    TextureRegion region = regionAt(layer, x, y);
+                    if (region != null) return region;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static TextureRegion regionAt(TiledMapTileLayer layer, int x, int y) {
+        TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+        if (cell == null) return null;
+        TiledMapTile tile = cell.getTile();
+        return tile == null ? null : tile.getTextureRegion();
+    }
+
+    @Override
+    public void dispose() {
+        cache.dispose();
+    }
+}
@@ -0,0 +1,135 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+// When the next blast reaches each cell, so enemies can keep out of blasts by reading the cells
+// around them instead of looking at every bomb. It is kept up to date as things happen rather
+// than rebuilt every tick: a bomb placed paints its cross, a blast clears its cells, and a wall
+// that stops blocking blasts lets the bombs behind it paint further. A bomb in another bomb's
+// cross goes off with it, so it takes the earlier time too and passes it on down the chain.
+//
+// Written only in the bomb phase of a tick (and when bombs are placed), so the enemy pass can
+// read it from any thread.
+public class DangerMap {
+    public static final float SAFE = Float.POSITIVE_INFINITY;
+
+    private final TileGrid grid;
+    private final int width;
+    private final float[] blastTimes; // Tick time of the next blast on each cell, or SAFE
+    private final byte[] radii; // Of the bomb on each cell, 0 where there is none
+    private final IntArray repaint = new IntArray(); // Bomb cells whose time went down
+    private float time;
+
+    public DangerMap(TileGrid grid) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.blastTimes = new float[grid.getWidth() * grid.getHeight()];
+        this.radii = new byte[blastTimes.length];
+        clear();
+    }
+
+    public void clear() {
+        Arrays.fill(blastTimes, SAFE);
+        Arrays.fill(radii, (byte) 0);
+        time = 0;
+    }
+
+    // Called once per tick, before anything reads the map
+    public void advance(float delta) {
+        time += delta;
+    }
+
+    // Seconds until a blast reaches the cell, SAFE if no bomb will
+    public float getTimeUntilBlast(int x, int y) {
+        if (!grid.isInBounds(x, y)) return SAFE;
+        return Math.max(blastTimes[x + y * width] - time, 0);
+    }
+
+    public boolean isThreatened(int x, int y) {
+        return grid.isInBounds(x, y) && blastTimes[x + y * width] != SAFE;
+    }
+
+    public void bombPlaced(int x, int y, int radius, float fuse) {
+        int cell = x + y * width;
+        radii[cell] = (byte) radius;
+        // It goes off with its fuse, or earlier if another bomb's blast reaches it first
+        lower(cell, time + fuse);
+        repaint.add(cell);
+        repaintBombs();
+    }
+
+    // The cells it painted keep their time until refresh() clears them after the blast
+    public void bombExploded(int x, int y) {
+        radii[x + y * width] = 0;
+    }
+
+    // Works the cell's time out again from the bombs that can still reach it; call for every
+    // cell of a blast once the bombs that went off with it are gone
+    public void refresh(int x, int y) {
+        int cell = x + y * width;
+        float blastTime = radii[cell] > 0 ? blastTimes[cell] : SAFE;
+        for (int i = 0; i < 4; i++) {
+            int bombX = x;
+            int bombY = y;
+            for (int distance = 1; distance <= GameWorld.MAX_BOMB_RADIUS; distance++) {
+                bombX += TileGrid.DX[i];
+                bombY += TileGrid.DY[i];
+                if (grid.is(bombX, bombY, TileGrid.BLOCKS_BLAST)) break;
+                int bombCell = bombX + bombY * width;
+                if (radii[bombCell] >= distance) {
+                    blastTime = Math.min(blastTime, blastTimes[bombCell]);
+                }
+            }
+        }
+        blastTimes[cell] = blastTime;
+    }
+
+    // A cell that blocked blasts doesn't any more, so the bombs behind it reach further
+    public void cellOpened(int x, int y) {
+        for (int i = 0; i < 4; i++) {
+            int bombX = x;
+            int bombY = y;
+            for (int distance = 1; distance <= GameWorld.MAX_BOMB_RADIUS; distance++) {
+                bombX += TileGrid.DX[i];
+                bombY += TileGrid.DY[i];
+                if (grid.is(bombX, bombY, TileGrid.BLOCKS_BLAST)) break;
+                int bombCell = bombX + bombY * width;
+                if (radii[bombCell] >= distance) {
+                    repaint.add(bombCell);
+                }
+            }
+        }
+        repaintBombs();
+    }
+
+    // Paints the cross of every bomb whose time went down, and of the bombs that brings forward
+    private void repaintBombs() {
+        while (repaint.size > 0) {
+            int cell = repaint.pop();
+            float blastTime = blastTimes[cell];
+            int originX = cell % width;
+            int originY = cell / width;
+            for (int i = 0; i < 4; i++) {
+                int x = originX;
+                int y = originY;
+                for (int j = 0; j < radii[cell]; j++) {
+                    x += TileGrid.DX[i];
+                    y += TileGrid.DY[i];
+                    if (grid.is(x, y, TileGrid.BLOCKS_BLAST)) break;
+                    int reached = x + y * width;
+                    if (lower(reached, blastTime) && radii[reached] > 0) {
+                        repaint.add(reached);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean lower(int cell, float blastTime) {
+        if (blastTime >= blastTimes[cell]) return false;
+        blastTimes[cell] = blastTime;
+        return true;
+    }
+}
@@ -0,0 +1,157 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+// Sets bombs off. Every bomb that goes off in a tick, because its fuse ran out or because a blast
+// reached it, is resolved in one pass: bombs wait in a queue, and a bit per cell marks the cells
+// some blast of the pass already reached, so a cell is destroyed and checked for enemies once
+// however many blasts overlap on it. A ray also stops where an earlier ray in the same direction
+// went at least as far, so the pass costs O(cells reached) whether one bomb goes off or hundreds
+// chain across the map.
+public class Detonator {
+    private static final EventLog.Message ENEMY_HIT = new EventLog.Message(EventLog.DEBUG, "Bomb", "Enemy hit by explosion at ({}, {})");
+
+    private final GameWorld world;
+    private final TileGrid grid;
+    private final int width;
+    private final int tileWidth;
+    private final int tileHeight;
+    // One bit per cell, set once a blast of this pass reached it
+    private final long[] reached;
+    // Per cell and direction, how many cells a ray leaving the cell this pass still had to go
+    private final byte[] reach;
+    // The ticking bomb on each cell
+    private final Bomb[] bombs;
+
+    // Bombs set off this pass; the ones before next have exploded
+    private final Array<Bomb> queue = new Array<>(false, 16);
+    private int next;
+
+    private final Rectangle explosionArea = new Rectangle();
+    private final IntArray hits = new IntArray();
+    private int cellsDestroyed;
+    private int enemiesHit;
+
+    public Detonator(GameWorld world, TileGrid grid) {
+        this.world = world;
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.tileWidth = (int) grid.getTileWidth();
+        this.tileHeight = (int) grid.getTileHeight();
+        int cells = grid.getWidth() * grid.getHeight();
+        this.reached = new long[(cells + 63) >>> 6];
+        this.reach = new byte[cells * 4];
+        this.bombs = new Bomb[cells];
+    }
+
+    // Registers a bomb placed on the map, so blasts reaching its cell set it off
+    public void place(Bomb bomb) {
+        bombs[cell(bomb)] = bomb;
+    }
+
+    public void clear() {
+        Arrays.fill(bombs, null);
+    }
+
+    // Sets the bomb off in the current pass; a bomb that already went off is left alone
+    public void trigger(Bomb bomb) {
+        if (bomb.isExploded()) return;
+        bomb.detonate();
+        bombs[cell(bomb)] = null;
+        world.onBombExploded(bomb);
+        queue.add(bomb);
+    }
+
+    // Explodes the triggered bombs and every bomb their blasts reach
+    public void resolve() {
+        if (queue.size == 0) return;
+        while (next < queue.size) {
+            explode(queue.get(next++));
+        }
+
+        // Only the cells this pass reached need clearing for the next one, and only their
+        // danger changed now that the bombs are gone
+        DangerMap dangerMap = world.getDangerMap();
+        for (int i = 0; i < queue.size; i++) {
+            Bomb bomb = queue.get(i);
+            for (int k = 0; k < bomb.getBlastCellCount(); k++) {
+                int cell = bomb.getBlastCell(k);
+                reached[cell >>> 6] = 0;
+                Arrays.fill(reach, cell * 4, cell * 4 + 4, (byte) 0);
+                dangerMap.refresh(cell % width, cell / width);
+            }
+        }
+        queue.clear();
+        next = 0;
+    }
+
+    private void explode(Bomb bomb) {
+        GameProbe probe = world.getProbe();
+        if (probe != null) probe.beginExplosion();
+        int originX = (int) bomb.getPosition().x;
+        int originY = (int) bomb.getPosition().y;
+        cellsDestroyed = 0;
+        enemiesHit = 0;
+
+        // Explode in the center
+        visit(bomb, originX, originY);
+
+        // Explode in the cross pattern until a solid wall stops the blast
+        for (int i = 0; i < 4; i++) {
+            int x = originX;
+            int y = originY;
+
+            for (int remaining = bomb.getRadius(); remaining > 0; remaining--) {
+                int slot = (x + y * width) * 4 + i;
+                // An earlier ray already went at least this far from here
+                if (reach[slot] >= remaining) break;
+                reach[slot] = (byte) remaining;
+
+                x += TileGrid.DX[i];
+                y += TileGrid.DY[i];
+                // Out of bounds counts as blocking
+                if (grid.is(x, y, TileGrid.BLOCKS_BLAST)) {
+                    break;
+                }
+                visit(bomb, x, y);
+            }
+        }
+        if (probe != null) probe.endExplosion(originX, originY, cellsDestroyed, enemiesHit);
+    }
+
+    // Applies the blast to a cell the first time this pass reaches it
+    private void visit(Bomb bomb, int x, int y) {
+        int cell = x + y * width;
+        long bit = 1L << cell;
+        if ((reached[cell >>> 6] & bit) != 0) return;
+        reached[cell >>> 6] |= bit;
+        bomb.addBlastCell(cell);
+
+        if (world.destroyCell(x, y)) cellsDestroyed++;
+        hitEnemies(x, y);
+        if (grid.is(x, y, TileGrid.BOMB) && bombs[cell] != null) {
+            trigger(bombs[cell]);
+        }
+    }
+
+    private void hitEnemies(int x, int y) {
+        EnemyStore enemies = world.getEnemies();
+        explosionArea.set(x * tileWidth, y * tileHeight, tileWidth, tileHeight);
+        world.getEnemyHash().query(explosionArea, hits);
+        for (int k = 0; k < hits.size; k++) {
+            // Enemies already dying are not hit again, by this blast or one it chains to
+            if (enemies.kill(hits.get(k))) {
+                enemiesHit++;
+                EventLog.log(ENEMY_HIT, x, y);
+            }
+        }
+    }
+
+    private int cell(Bomb bomb) {
+        return (int) bomb.getPosition().x + (int) bomb.getPosition().y * width;
+    }
+}
@@ -0,0 +1,101 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+// Animations for every enemy type, built once per type and shared by all enemies of that type.
+// Kept out of the simulation so it can run without a GL context.
+public class EnemyRenderer {
+    private static final int UP = 0, DOWN = 1, LEFT = 2, RIGHT = 3, DIE = 4;
+    private static final EventLog.Message MISSING_FRAME = new EventLog.Message(EventLog.ERROR, "Enemy", "currentFrame is null for state: {}");
+
+    // Indexed by EnemyType.index, then by the constants above
+    private final Animation<TextureRegion>[][] animations;
+
+    static final String ATLAS = "atlas/enemies.atlas";
+
+    // Queues the enemy sheets; the asset manager owns and disposes them
+    public static void queue(AssetManager assets) {
+        assets.load(ATLAS, TextureAtlas.class);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public EnemyRenderer(AssetManager assets, Array<EnemyType> types) {
+        TextureAtlas atlas = assets.get(ATLAS, TextureAtlas.class);
+        int frameCols = (int) MyGdxGame.FRAME_COLS;
+        int frameRows = (int) MyGdxGame.FRAME_ROWS;
+        int frameColsDeath = (int) MyGdxGame.FRAME_COLSDEATH;
+
+        animations = new Animation[types.size][];
+        for (EnemyType type : types) {
+            Animation<TextureRegion>[] set = new Animation[5];
+            set[UP] = createAnimation(atlas, type.upRegion, frameCols, frameRows, false, type.frameDuration);
+            set[DOWN] = createAnimation(atlas, type.downRegion, frameCols, frameRows, false, type.frameDuration);
+            // The left sheet is drawn right to left
+            set[LEFT] = createAnimation(atlas, type.leftRegion, frameCols, frameRows, true, type.frameDuration);
+            set[RIGHT] = createAnimation(atlas, type.rightRegion, frameCols, frameRows, false, type.frameDuration);
+            set[DIE] = createAnimation(atlas, type.deathRegion, frameColsDeath, frameRows, false, type.frameDuration);
+            animations[type.index] = set;
+        }
+    }
+
+    private static Animation<TextureRegion> createAnimation(TextureAtlas atlas, String name, int frameCols, int frameRows, boolean reversed, float frameDuration) {
+        TextureRegion sheet = atlas.findRegion(name);
+        if (sheet == null) {
+            throw new GdxRuntimeException("Enemy region not found: " + name);
+        }
+        TextureRegion[][] tmp = sheet.split(sheet.getRegionWidth() / frameCols, sheet.getRegionHeight() / frameRows);
+        TextureRegion[] frames = new TextureRegion[frameCols * frameRows];
+        int index = 0;
+        for (int i = 0; i < frameRows; i++) {
+            for (int j = 0; j < frameCols; j++) {
+                frames[index++] = tmp[i][reversed ? frameCols - j - 1 : j];
+            }
+        }
+        return new Animation<>(frameDuration, frames);
+    }
+
+    public void render(SpriteBatch batch, EnemyStore enemies, int i, float alpha, Rectangle view) {
+        EnemyType type = enemies.getType(i);
+        float x = enemies.getPreviousX(i) + (enemies.getX(i) - enemies.getPreviousX(i)) * alpha;
+        float y = enemies.getPreviousY(i) + (enemies.getY(i) - enemies.getPreviousY(i)) * alpha;
+        if (!WorldRenderer.isVisible(view, x, y, type.width, type.height)) {
+            return;
+        }
+
+        Animation<TextureRegion>[] set = animations[type.index];
+        Animation<TextureRegion> animation;
+        switch (enemies.getState(i)) {
+            case EnemyStore.MOVING_UP:
+                animation = set[UP];
+                break;
+            case EnemyStore.MOVING_DOWN:
+                animation = set[DOWN];
+                break;
+            case EnemyStore.MOVING_LEFT:
+                animation = set[LEFT];
+                break;
+            case EnemyStore.DIE:
+                animation = set[DIE];
+                break;
+            default:
+                animation = set[RIGHT];
+                break;
+        }
+        TextureRegion currentFrame = animation.getKeyFrame(enemies.getStateTime(i), true);
+
+        if(currentFrame == null)
+            EventLog.log(MISSING_FRAME, enemies.getState(i));
+        else {
+            // Same world units as the bounding box
+            batch.draw(currentFrame, x, y, type.width, type.height);
+        }
+    }
+}
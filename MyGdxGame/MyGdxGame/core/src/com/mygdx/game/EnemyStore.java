@@ -0,0 +1,352 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Arrays;
+
+// Every enemy in the world as parallel primitive arrays, one slot per enemy, so a tick walks a
+// few flat arrays instead of chasing one object per enemy. Enemy i is the i-th entry of each
+// array; speed, size and looks come from its EnemyType. Slots are kept in spawn order.
+//
+// The enemy pass of a tick only writes an enemy's own slots and reads state nothing else
+// changes during the pass, so ranges of enemies can update on different threads. Random
+// numbers are a hash of the seed, the tick and the slot rather than a shared generator, so the
+// outcome is the same whatever the order or the number of threads.
+public class EnemyStore {
+    // States
+    public static final byte MOVING_UP = 0;
+    public static final byte MOVING_RIGHT = 1;
+    public static final byte MOVING_LEFT = 2;
+    public static final byte MOVING_DOWN = 3;
+    public static final byte DIE = 4;
+    public static final byte DEAD = 5; // Finished dying; removed at the end of the tick
+
+    private static final byte[] MOVING_STATES = {MOVING_UP, MOVING_DOWN, MOVING_LEFT, MOVING_RIGHT};
+
+    // Splits the enemy pass into ranges; the default runs it on the calling thread
+    public interface Scheduler {
+        void update(EnemyStore enemies);
+    }
+
+    public static final Scheduler SERIAL = new Scheduler() {
+        @Override
+        public void update(EnemyStore enemies) {
+            enemies.update(0, enemies.size);
+        }
+    };
+
+    private final EnemyType[] types;
+    private long seed;
+
+    public int size;
+    float[] x;
+    float[] y;
+    float[] previousX;
+    float[] previousY;
+    byte[] state;
+    float[] stateTime;
+    byte[] type; // EnemyType.index, unsigned
+
+    // Set by update(delta, tick, world) for the ranges it hands out
+    private GameWorld world;
+    private float delta;
+    private int tick;
+    private int playerX;
+    private int playerY;
+
+    public EnemyStore(Array<EnemyType> types, int capacity) {
+        this.types = types.toArray(EnemyType.class);
+        x = new float[capacity];
+        y = new float[capacity];
+        previousX = new float[capacity];
+        previousY = new float[capacity];
+        state = new byte[capacity];
+        stateTime = new float[capacity];
+        type = new byte[capacity];
+    }
+
+    // Grows the arrays to hold at least capacity enemies; adding past the capacity grows them too
+    public void ensureCapacity(int capacity) {
+        if (capacity <= x.length) return;
+        capacity = Math.max(capacity, x.length * 2);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        state = Arrays.copyOf(state, capacity);
+        stateTime = Arrays.copyOf(stateTime, capacity);
+        type = Arrays.copyOf(type, capacity);
+    }
+
+    // Adds an enemy of the given type at x, y in world units and returns its slot
+    public int add(EnemyType enemyType, float x, float y) {
+        ensureCapacity(size + 1);
+        int i = size++;
+        this.x[i] = x;
+        this.y[i] = y;
+        previousX[i] = x;
+        previousY[i] = y;
+        state[i] = MOVING_RIGHT; // Initial state
+        stateTime[i] = 0.33f;
+        type[i] = (byte) enemyType.index;
+        return i;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Decides every random number from here on
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // Called at the start of every tick so rendering can blend between ticks
+    public void storePreviousPositions() {
+        System.arraycopy(x, 0, previousX, 0, size);
+        System.arraycopy(y, 0, previousY, 0, size);
+    }
+
+    // Starts the death animation of an enemy caught in a blast; false if it was already dying
+    public boolean kill(int i) {
+        if (state[i] >= DIE) return false;
+        state[i] = DIE;
+        stateTime[i] = 0; // Reset the animation time for the death animation
+        return true;
+    }
+
+    // Drops the enemies that finished dying, keeping the rest in order
+    public void removeDead() {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (state[i] == DEAD) continue;
+            if (kept != i) {
+                x[kept] = x[i];
+                y[kept] = y[i];
+                previousX[kept] = previousX[i];
+                previousY[kept] = previousY[i];
+                state[kept] = state[i];
+                stateTime[kept] = stateTime[i];
+                type[kept] = type[i];
+            }
+            kept++;
+        }
+        size = kept;
+    }
+
+    public boolean overlaps(int i, Rectangle area) {
+        EnemyType t = types[type[i] & 0xFF];
+        return x[i] < area.x + area.width && x[i] + t.width > area.x
+                && y[i] < area.y + area.height && y[i] + t.height > area.y;
+    }
+
+    public float getX(int i) {
+        return x[i];
+    }
+
+    public float getY(int i) {
+        return y[i];
+    }
+
+    public float getPreviousX(int i) {
+        return previousX[i];
+    }
+
+    public float getPreviousY(int i) {
+        return previousY[i];
+    }
+
+    public byte getState(int i) {
+        return state[i];
+    }
+
+    public float getStateTime(int i) {
+        return stateTime[i];
+    }
+
+    public EnemyType getType(int i) {
+        return types[type[i] & 0xFF];
+    }
+
+    // Runs the enemy pass of a tick through the scheduler. The player's cell must already be
+    // in the flow field and line of sight.
+    public void update(float delta, int tick, GameWorld world, Scheduler scheduler) {
+        this.world = world;
+        this.delta = delta;
+        this.tick = tick;
+        this.playerX = (int) world.getPlayer().getPosition().x;
+        this.playerY = (int) world.getPlayer().getPosition().y;
+        scheduler.update(this);
+    }
+
+    // Updates the enemies in slots from (inclusive) to to (exclusive). Far-away enemies take one
+    // bigger step every few ticks, staggered so each tick only updates a share of them.
+    public void update(int from, int to) {
+        TileGrid grid = world.getGrid();
+        for (int i = from; i < to; i++) {
+            EnemyType t = types[type[i] & 0xFF];
+            int tileX = tileX(grid, i, t);
+            int tileY = tileY(grid, i, t);
+            if (Math.abs(tileX - playerX) <= GameWorld.ACTIVE_RANGE && Math.abs(tileY - playerY) <= GameWorld.ACTIVE_RANGE) {
+                update(i, t, delta);
+            } else if ((tick + i) % GameWorld.FAR_UPDATE_INTERVAL == 0) {
+                update(i, t, delta * GameWorld.FAR_UPDATE_INTERVAL);
+            }
+        }
+    }
+
+    private void update(int i, EnemyType t, float dt) {
+        stateTime[i] += dt;
+
+        // Calculate the next position based on the current state and speed
+        float step = t.speed * dt;
+        float nextX = x[i];
+        float nextY = y[i];
+        switch (state[i]) {
+            case MOVING_UP:
+                nextY += step;
+                break;
+            case MOVING_DOWN:
+                nextY -= step;
+                break;
+            case MOVING_RIGHT:
+                nextX += step;
+                break;
+            case MOVING_LEFT:
+                nextX -= step;
+                break;
+            case DIE:
+                if (stateTime[i] >= t.dyingTime) {
+                    state[i] = DEAD;
+                }
+                return; // A dying enemy neither moves nor chases
+            default:
+                return;
+        }
+
+        // Get out of the way of a blast before anything else
+        TileGrid grid = world.getGrid();
+        DangerMap dangerMap = world.getDangerMap();
+        int tileX = tileX(grid, i, t);
+        int tileY = tileY(grid, i, t);
+        if (dangerMap.isThreatened(tileX, tileY) && flee(i, grid, dangerMap, tileX, tileY, step)) {
+            return;
+        }
+
+        // Chase the player along the shared flow field, or wander if it can't be reached
+        if (t.chases && world.getLineOfSight().canSee(tileX, tileY, playerX, playerY) && followFlowField(i, grid, dangerMap, tileX, tileY, step)) {
+            return;
+        }
+        if (isCollision(grid, t, nextX, nextY, state[i]) || dangerMap.isThreatened(leadingTileX(grid, t, nextX, state[i]), leadingTileY(grid, t, nextY, state[i]))) {
+            state[i] = MOVING_STATES[random(i, MOVING_STATES.length)];
+        }
+        else {
+            x[i] = nextX;
+            y[i] = nextY;
+        }
+    }
+
+    private static boolean isCollision(TileGrid grid, EnemyType t, float nextX, float nextY, byte direction) {
+        return grid.isSolid(leadingTileX(grid, t, nextX, direction), leadingTileY(grid, t, nextY, direction));
+    }
+
+    // The tile the front of an enemy at nextX, nextY moving in the given direction is on
+    private static int leadingTileX(TileGrid grid, EnemyType t, float nextX, byte direction) {
+        return (int) ((direction == MOVING_RIGHT ? nextX + t.width : nextX) / grid.getTileWidth());
+    }
+
+    private static int leadingTileY(TileGrid grid, EnemyType t, float nextY, byte direction) {
+        return (int) ((direction == MOVING_UP ? nextY + t.height : nextY) / grid.getTileHeight());
+    }
+
+    // Takes one step towards the player along the flow field. Returns false if the player
+    // can't be reached from this tile, or only through a blast.
+    private boolean followFlowField(int i, TileGrid grid, DangerMap dangerMap, int tileX, int tileY, float step) {
+        FlowField flowField = world.getFlowField();
+        if (flowField.getDistance(tileX, tileY) == FlowField.UNREACHED) {
+            return false;
+        }
+        int direction = flowField.getDirection(tileX, tileY);
+        if (direction >= 0 && dangerMap.isThreatened(tileX + TileGrid.DX[direction], tileY + TileGrid.DY[direction])) {
+            return false;
+        }
+        moveAlong(i, grid, tileX, tileY, direction, step);
+        return true;
+    }
+
+    // Takes one step onto the neighbouring tile the next blast reaches last, if that is later
+    // than here. Returns false if no neighbour is safer.
+    private boolean flee(int i, TileGrid grid, DangerMap dangerMap, int tileX, int tileY, float step) {
+        float latest = dangerMap.getTimeUntilBlast(tileX, tileY);
+        int best = -1;
+        int first = random(i, 4); // So enemies on one tile don't all flee the same way
+        for (int k = 0; k < 4; k++) {
+            int direction = (first + k) % 4;
+            int neighbourX = tileX + TileGrid.DX[direction];
+            int neighbourY = tileY + TileGrid.DY[direction];
+            if (grid.isSolid(neighbourX, neighbourY)) continue;
+            float time = dangerMap.getTimeUntilBlast(neighbourX, neighbourY);
+            if (time > latest) {
+                latest = time;
+                best = direction;
+            }
+        }
+        if (best < 0) return false;
+        moveAlong(i, grid, tileX, tileY, best, step);
+        return true;
+    }
+
+    // Steps from the tile towards its neighbour in the given direction (one of TileGrid's), or
+    // to the middle of the tile if the direction is -1
+    private void moveAlong(int i, TileGrid grid, int tileX, int tileY, int direction, float step) {
+        float laneX = tileX * grid.getTileWidth();
+        float laneY = tileY * grid.getTileHeight();
+
+        // Line up with the current tile across the direction of travel before moving along it,
+        // so the bounding box never clips the corner of a wall
+        if ((direction < 0 || TileGrid.DX[direction] == 0) && x[i] != laneX) {
+            moveTowards(i, laneX, y[i], step);
+        } else if ((direction < 0 || TileGrid.DY[direction] == 0) && y[i] != laneY) {
+            moveTowards(i, x[i], laneY, step);
+        } else if (direction >= 0) {
+            moveTowards(i, x[i] + TileGrid.DX[direction] * step, y[i] + TileGrid.DY[direction] * step, step);
+        }
+    }
+
+    // Moves along one axis towards the target, by at most step, facing the way it moves
+    private void moveTowards(int i, float targetX, float targetY, float step) {
+        float dx = MathUtils.clamp(targetX - x[i], -step, step);
+        float dy = MathUtils.clamp(targetY - y[i], -step, step);
+        if (dx > 0) state[i] = MOVING_RIGHT;
+        else if (dx < 0) state[i] = MOVING_LEFT;
+        else if (dy > 0) state[i] = MOVING_UP;
+        else if (dy < 0) state[i] = MOVING_DOWN;
+        x[i] += dx;
+        y[i] += dy;
+    }
+
+    // The tile under the enemy's centre
+    private int tileX(TileGrid grid, int i, EnemyType t) {
+        return (int) ((x[i] + t.width / 2) / grid.getTileWidth());
+    }
+
+    private int tileY(TileGrid grid, int i, EnemyType t) {
+        return (int) ((y[i] + t.height / 2) / grid.getTileHeight());
+    }
+
+    // A number in [0, bound) that depends only on the seed, the tick and the slot (SplitMix64's
+    // finalizer over the three)
+    private int random(int i, int bound) {
+        long z = seed + tick * 0x9E3779B97F4A7C15L + i * 0xC2B2AE3D27D4EB4FL;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (int) ((z >>> 33) % bound);
+    }
+}
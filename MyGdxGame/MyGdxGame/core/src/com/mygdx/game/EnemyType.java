@@ -0,0 +1,77 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+// Everything enemies of one kind share, read from data/enemies.json. Enemies only point at their
+// type, so a level full of them costs a position and a few state fields each. The animations
+// are atlas region names; EnemyRenderer turns them into one set of animations per type.
+public class EnemyType {
+    public static final String FILE = "data/enemies.json";
+    public static final int MAX_TYPES = 256; // EnemyStore keeps the index in a byte
+
+    public final int index; // Position in the file, and in every array indexed by type
+    public final String name;
+    public final float speed; // World units per second
+    // Of the bounding box; no bigger than a tile of the map it plays on (see GameWorld.setMap)
+    public final float width;
+    public final float height;
+    public final boolean chases; // Follows the flow field to the player once it sees them
+    public final float dyingTime; // Seconds the death animation plays before the enemy is removed
+
+    public final float frameDuration;
+    public final String upRegion;
+    public final String downRegion;
+    public final String leftRegion;
+    public final String rightRegion;
+    public final String deathRegion;
+
+    private EnemyType(int index, JsonValue json) {
+        this.index = index;
+        this.name = json.getString("name");
+        this.speed = json.getFloat("speed", 30f);
+        this.width = json.getFloat("width", 32f);
+        this.height = json.getFloat("height", 32f);
+        this.chases = json.getBoolean("chases", true);
+        this.dyingTime = json.getFloat("dyingTime", 2f);
+        if (width <= 0 || height <= 0) {
+            throw new GdxRuntimeException("Enemy type " + name + " has no size: " + width + "x" + height);
+        }
+
+        JsonValue animations = json.get("animations");
+        if (animations == null) {
+            throw new GdxRuntimeException("Enemy type " + name + " has no animations");
+        }
+        this.frameDuration = animations.getFloat("frameDuration", 0.5f);
+        this.upRegion = animations.getString("up");
+        this.downRegion = animations.getString("down");
+        this.leftRegion = animations.getString("left");
+        this.rightRegion = animations.getString("right");
+        this.deathRegion = animations.getString("die");
+    }
+
+    public static Array<EnemyType> load(FileHandle file) {
+        Array<EnemyType> types = new Array<>();
+        for (JsonValue json = new JsonReader().parse(file).child; json != null; json = json.next) {
+            types.add(new EnemyType(types.size, json));
+        }
+        if (types.isEmpty()) {
+            throw new GdxRuntimeException("No enemy types in " + file);
+        }
+        if (types.size > MAX_TYPES) {
+            throw new GdxRuntimeException(types.size + " enemy types in " + file + ", at most " + MAX_TYPES + " are supported");
+        }
+        return types;
+    }
+
+    // The type with the given name; spawn points refer to types by name
+    public static EnemyType find(Array<EnemyType> types, String name) {
+        for (EnemyType type : types) {
+            if (type.name.equals(name)) return type;
+        }
+        throw new GdxRuntimeException("Unknown enemy type: " + name);
+    }
+}
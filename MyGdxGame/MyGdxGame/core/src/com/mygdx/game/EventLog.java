@@ -0,0 +1,276 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Leveled log for the game thread. A call copies its message and a few primitive values into a
+// preallocated ring buffer and returns; a background thread turns them into text and hands them
+// to a Sink in batches, so gameplay frames neither build strings nor wait on I/O. A message
+// whose level is off costs one comparison.
+//
+// Messages are constants with "{}" placeholders, filled in order by the numbers and then the
+// object passed with them. Objects are kept until the drainer formats them, so pass immutable
+// ones (strings, enum values). A Throwable is written after the message with its stack trace.
+//
+// Any thread may log: slots are claimed with a compare-and-set, and the drainer only reads a slot
+// once its writer has published it. When the buffer is full new events are dropped and counted
+// rather than making the game wait.
+public final class EventLog {
+    // The same values as Application.LOG_*
+    public static final int NONE = Application.LOG_NONE;
+    public static final int ERROR = Application.LOG_ERROR;
+    public static final int INFO = Application.LOG_INFO;
+    public static final int DEBUG = Application.LOG_DEBUG;
+
+    private static final int CAPACITY = 1024; // A power of two
+    private static final int MASK = CAPACITY - 1;
+    private static final long DRAIN_INTERVAL_NANOS = 100000000L; // At most 0.1 s behind, errors straight away
+
+    public static class Message {
+        final int level;
+        final String tag;
+        final String[] parts; // The text around the placeholders
+
+        public Message(int level, String tag, String text) {
+            this.level = level;
+            this.tag = tag;
+            this.parts = text.split("\\{\\}", -1);
+        }
+    }
+
+    // Where the drainer writes; called from its thread only
+    public interface Sink {
+        void write(int level, String tag, String text, Throwable error);
+
+        // End of a batch
+        void flush();
+    }
+
+    // Logcat on Android, standard output elsewhere
+    public static class GdxSink implements Sink {
+        @Override
+        public void write(int level, String tag, String text, Throwable error) {
+            if (level == ERROR) {
+                if (error != null) Gdx.app.error(tag, text, error);
+                else Gdx.app.error(tag, text);
+            } else if (level == INFO) {
+                Gdx.app.log(tag, text);
+            } else {
+                Gdx.app.debug(tag, text);
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+
+    // Appends to a file, one line per event
+    public static class FileSink implements Sink {
+        private final Writer writer;
+        private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss.SSS", Locale.US);
+        private final Date date = new Date();
+
+        public FileSink(FileHandle file) {
+            this.writer = file.writer(true, "UTF-8");
+        }
+
+        @Override
+        public void write(int level, String tag, String text, Throwable error) {
+            date.setTime(System.currentTimeMillis());
+            try {
+                writer.write(timeFormat.format(date) + " " + (level == ERROR ? "E " : level == INFO ? "I " : "D ") + tag + ": " + text + "\n");
+                if (error != null) {
+                    error.printStackTrace(new PrintWriter(writer));
+                }
+            } catch (IOException e) {
+                System.err.println("EventLog: could not write to the log file: " + e);
+            }
+        }
+
+        @Override
+        public void flush() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                System.err.println("EventLog: could not write to the log file: " + e);
+            }
+        }
+    }
+
+    private static int level = INFO; // Plain, so the check at every call site is as cheap as it gets
+
+    // The ring: slot i holds event number n where n & MASK == i, once published[i] == n + 1
+    private static final Message[] messages = new Message[CAPACITY];
+    private static final long[] firstValues = new long[CAPACITY];
+    private static final long[] secondValues = new long[CAPACITY];
+    private static final byte[] valueCounts = new byte[CAPACITY];
+    private static final Object[] objects = new Object[CAPACITY];
+    private static final Throwable[] errors = new Throwable[CAPACITY];
+    private static final AtomicLongArray published = new AtomicLongArray(CAPACITY);
+    private static final AtomicLong head = new AtomicLong(); // Next event number to claim
+    private static volatile long tail; // Next event number to drain
+    private static final AtomicInteger dropped = new AtomicInteger();
+
+    private static volatile Sink sink;
+    private static volatile Thread drainer;
+    private static volatile boolean running;
+
+    private EventLog() {
+    }
+
+    // Messages above this level are skipped at the call site
+    public static void setLevel(int level) {
+        EventLog.level = level;
+    }
+
+    public static boolean isEnabled(Message message) {
+        return message.level <= level;
+    }
+
+    public static void log(Message message) {
+        if (message.level > level) return;
+        write(message, 0, 0, 0, null, null);
+    }
+
+    public static void log(Message message, long value) {
+        if (message.level > level) return;
+        write(message, 1, value, 0, null, null);
+    }
+
+    public static void log(Message message, long first, long second) {
+        if (message.level > level) return;
+        write(message, 2, first, second, null, null);
+    }
+
+    public static void log(Message message, long value, Object object) {
+        if (message.level > level) return;
+        write(message, 1, value, 0, object, null);
+    }
+
+    public static void log(Message message, Object object) {
+        if (message.level > level) return;
+        write(message, 0, 0, 0, object, null);
+    }
+
+    public static void log(Message message, Throwable error) {
+        if (message.level > level) return;
+        write(message, 0, 0, 0, null, error);
+    }
+
+    public static void log(Message message, Object object, Throwable error) {
+        if (message.level > level) return;
+        write(message, 0, 0, 0, object, error);
+    }
+
+    // Starts the background thread writing to the sink; events logged before are kept for it
+    public static synchronized void start(Sink sink) {
+        EventLog.sink = sink;
+        if (drainer != null) return;
+        running = true;
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (running) {
+                    drain();
+                    LockSupport.parkNanos(DRAIN_INTERVAL_NANOS);
+                }
+                drain();
+            }
+        }, "EventLog");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        drainer = thread;
+        thread.start();
+    }
+
+    // Writes out whatever is left and stops the background thread
+    public static synchronized void stop() {
+        Thread thread = drainer;
+        if (thread == null) return;
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainer = null;
+    }
+
+    private static void write(Message message, int valueCount, long first, long second, Object object, Throwable error) {
+        long number;
+        do {
+            number = head.get();
+            if (number - tail >= CAPACITY) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!head.compareAndSet(number, number + 1));
+
+        int slot = (int) (number & MASK);
+        messages[slot] = message;
+        valueCounts[slot] = (byte) valueCount;
+        firstValues[slot] = first;
+        secondValues[slot] = second;
+        objects[slot] = object;
+        errors[slot] = error;
+        published.lazySet(slot, number + 1);
+
+        if (message.level == ERROR) {
+            Thread thread = drainer;
+            if (thread != null) LockSupport.unpark(thread);
+        }
+    }
+
+    // Formats and writes every published event, in order; runs on the drainer thread
+    private static void drain() {
+        Sink sink = EventLog.sink;
+        StringBuilder text = new StringBuilder();
+        long next = tail;
+        boolean wrote = false;
+        while (published.get((int) (next & MASK)) == next + 1) {
+            int slot = (int) (next & MASK);
+            Message message = messages[slot];
+            Object object = objects[slot];
+            Throwable error = errors[slot];
+
+            text.setLength(0);
+            int valueCount = valueCounts[slot];
+            for (int i = 0; i < message.parts.length; i++) {
+                text.append(message.parts[i]);
+                if (i == message.parts.length - 1) break;
+                if (i < valueCount) {
+                    text.append(i == 0 ? firstValues[slot] : secondValues[slot]);
+                } else if (i == valueCount && object != null) {
+                    text.append(object);
+                }
+            }
+            objects[slot] = null;
+            errors[slot] = null;
+            tail = ++next; // Frees the slot for writers
+
+            sink.write(message.level, message.tag, text.toString(), error);
+            wrote = true;
+        }
+
+        int lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            sink.write(ERROR, "EventLog", lost + " events dropped, the log buffer was full", null);
+            wrote = true;
+        }
+        if (wrote) sink.flush();
+    }
+}
@@ -0,0 +1,151 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+// Walking distance from every open cell to one target cell (the player), shared by all enemies.
+// A full breadth-first search only runs when the target moves to another cell; cells opened by
+// bombs are patched in by relaxing from them. The search stops at maxDistance, so its cost is
+// bounded by the area around the target rather than the size of the map.
+public class FlowField {
+    public static final int UNREACHED = Integer.MAX_VALUE;
+
+    private final TileGrid grid;
+    private final int width;
+    private final int maxDistance;
+    private final int[] distances;
+
+    // Every cell with a distance, in the order found; the full search uses it as its queue
+    private final IntArray reached;
+    private final IntArray queue;
+
+    private int targetX = -1;
+    private int targetY = -1;
+
+    public FlowField(TileGrid grid, int maxDistance) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.maxDistance = maxDistance;
+        this.distances = new int[grid.getWidth() * grid.getHeight()];
+        Arrays.fill(distances, UNREACHED);
+        // Room for every cell within maxDistance steps, so neither grows mid-match
+        int area = Math.min(2 * maxDistance * (maxDistance + 1) + 1, distances.length);
+        this.reached = new IntArray(area);
+        this.queue = new IntArray(area);
+    }
+
+    // Brings the field up to date with the target cell and any cells opened since the last call
+    public void update(int targetX, int targetY) {
+        IntArray openedCells = grid.getOpenedCells();
+        if (targetX != this.targetX || targetY != this.targetY) {
+            this.targetX = targetX;
+            this.targetY = targetY;
+            rebuild();
+        } else {
+            for (int i = 0; i < openedCells.size; i++) {
+                relax(openedCells.get(i));
+            }
+        }
+        openedCells.clear();
+    }
+
+    // Makes the next update() search from scratch, as for a new field
+    public void reset() {
+        targetX = -1;
+        targetY = -1;
+    }
+
+    public int getDistance(int x, int y) {
+        return grid.isInBounds(x, y) ? distances[x + y * width] : UNREACHED;
+    }
+
+    // Index into TileGrid.DX/DY of the neighbour one step closer to the target, or -1 if the
+    // cell is the target itself or can't reach it
+    public int getDirection(int x, int y) {
+        int best = getDistance(x, y);
+        if (best == UNREACHED) return -1;
+
+        int direction = -1;
+        for (int i = 0; i < 4; i++) {
+            int distance = getDistance(x + TileGrid.DX[i], y + TileGrid.DY[i]);
+            if (distance < best) {
+                best = distance;
+                direction = i;
+            }
+        }
+        return direction;
+    }
+
+    private void rebuild() {
+        for (int i = 0; i < reached.size; i++) {
+            distances[reached.get(i)] = UNREACHED;
+        }
+        reached.clear();
+        if (grid.isSolid(targetX, targetY)) return;
+
+        int start = targetX + targetY * width;
+        distances[start] = 0;
+        reached.add(start);
+        for (int head = 0; head < reached.size; head++) {
+            int cell = reached.get(head);
+            int next = distances[cell] + 1;
+            if (next > maxDistance) continue;
+
+            int x = cell % width;
+            int y = cell / width;
+            for (int i = 0; i < 4; i++) {
+                int nx = x + TileGrid.DX[i];
+                int ny = y + TileGrid.DY[i];
+                if (grid.isSolid(nx, ny)) continue;
+                int neighbour = nx + ny * width;
+                if (distances[neighbour] == UNREACHED) {
+                    distances[neighbour] = next;
+                    reached.add(neighbour);
+                }
+            }
+        }
+    }
+
+    // Opening a cell can only shorten paths, so start from its best neighbour and spread the
+    // improvement outwards until nothing gets shorter
+    private void relax(int cell) {
+        int x = cell % width;
+        int y = cell / width;
+        int best = UNREACHED;
+        for (int i = 0; i < 4; i++) {
+            int distance = getDistance(x + TileGrid.DX[i], y + TileGrid.DY[i]);
+            if (distance < best) best = distance;
+        }
+        if (best == UNREACHED || best + 1 > maxDistance) return;
+
+        setDistance(cell, best + 1);
+        queue.clear();
+        queue.add(cell);
+        for (int head = 0; head < queue.size; head++) {
+            int current = queue.get(head);
+            int next = distances[current] + 1;
+            if (next > maxDistance) continue;
+
+            int cx = current % width;
+            int cy = current / width;
+            for (int i = 0; i < 4; i++) {
+                int nx = cx + TileGrid.DX[i];
+                int ny = cy + TileGrid.DY[i];
+                if (grid.isSolid(nx, ny)) continue;
+                int neighbour = nx + ny * width;
+                if (next < distances[neighbour]) {
+                    setDistance(neighbour, next);
+                    queue.add(neighbour);
+                }
+            }
+        }
+    }
+
+    private void setDistance(int cell, int distance) {
+        if (distances[cell] == UNREACHED) {
+            reached.add(cell);
+        }
+        distances[cell] = distance;
+    }
+}
@@ -0,0 +1,267 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+
+// Times the phases of each playing frame, counts its draw calls, texture binds and (where the
+// launcher provides a counter) bytes allocated, and keeps the last WINDOW frames of each. While
+// enabled it draws their rolling p50/p95/p99 over the game; export() appends them to a CSV file
+// in local storage, so runs of different builds on one device can be compared.
+//
+// Everything is a no-op while disabled, and recording a frame doesn't allocate. As the game's
+// probe it gets the enemy and bomb phases from inside GameWorld's ticks.
+public class FrameProfiler implements GameProbe {
+    // Time phases, in the order they happen in a frame
+    public static final int INPUT = 0;
+    public static final int UPDATE = 1; // Whole simulation ticks, including the next two
+    public static final int ENEMIES = 2;
+    public static final int BOMBS = 3;
+    public static final int MAP = 4;
+    public static final int SPRITES = 5;
+    public static final int UI = 6;
+    public static final int FRAME = 7; // The whole of render() while playing
+    private static final int PHASES = 8;
+    // Counters
+    private static final int DRAW_CALLS = 8;
+    private static final int TEXTURE_BINDINGS = 9;
+    private static final int ALLOCATED = 10;
+    private static final int METRICS = 11;
+
+    private static final String[] NAMES = {
+            "input", "update", "enemies", "bombs", "map", "sprites", "ui", "frame",
+            "draw calls", "texture binds", "allocated"};
+    private static final String[] CSV_NAMES = {
+            "input_us", "update_us", "enemies_us", "bombs_us", "map_us", "sprites_us", "ui_us", "frame_us",
+            "draw_calls", "texture_binds", "allocated_bytes"};
+
+    public static final String CSV_FILE = "profiles/frames.csv";
+    private static final EventLog.Message EXPORTED = new EventLog.Message(EventLog.INFO, "Profiler", "Exported {} frames to {}");
+    private static final EventLog.Message EXPORT_FAILED = new EventLog.Message(EventLog.ERROR, "Profiler", "Could not export to {}");
+    private static final int WINDOW = 300; // Five seconds at 60 fps
+    private static final int REFRESH_FRAMES = 30; // How often the overlay works out the percentiles
+
+    // Bytes allocated by the calling thread so far; platform specific, so launchers supply it
+    public interface AllocationCounter {
+        void start();
+        void stop();
+        long allocatedBytes();
+    }
+
+    private final long[][] samples = new long[METRICS][WINDOW];
+    private final long[] current = new long[METRICS];
+    private final long[] started = new long[PHASES];
+    // p50, p95 and p99 of every metric, as of the last refresh
+    private final long[][] percentiles = new long[METRICS][3];
+    private final long[] sorted = new long[WINDOW];
+    private int frames; // Recorded since enabled, capped at WINDOW
+    private int position;
+    private int sinceRefresh;
+
+    private boolean enabled;
+    private AllocationCounter allocationCounter;
+    private GLProfiler glProfiler;
+    private BitmapFont font;
+    private final StringBuilder text = new StringBuilder();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setAllocationCounter(AllocationCounter allocationCounter) {
+        this.allocationCounter = allocationCounter;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (enabled == this.enabled) return;
+        this.enabled = enabled;
+        if (enabled) {
+            if (glProfiler == null) {
+                glProfiler = new GLProfiler(Gdx.graphics);
+                font = new BitmapFont();
+                font.setColor(Color.YELLOW);
+            }
+            glProfiler.enable();
+            if (allocationCounter != null) allocationCounter.start();
+            frames = 0;
+            position = 0;
+            sinceRefresh = 0;
+            text.setLength(0);
+        } else {
+            glProfiler.disable();
+            if (allocationCounter != null) allocationCounter.stop();
+        }
+    }
+
+    public void toggle() {
+        setEnabled(!enabled);
+    }
+
+    public void beginFrame() {
+        if (!enabled) return;
+        Arrays.fill(current, 0);
+        glProfiler.reset();
+        if (allocationCounter != null) current[ALLOCATED] = allocationCounter.allocatedBytes();
+        started[FRAME] = System.nanoTime();
+    }
+
+    // A phase can run several times a frame (once per tick); the times add up
+    public void begin(int phase) {
+        if (!enabled) return;
+        started[phase] = System.nanoTime();
+    }
+
+    public void end(int phase) {
+        if (!enabled) return;
+        current[phase] += System.nanoTime() - started[phase];
+    }
+
+    @Override
+    public void beginTick(int tick) {
+    }
+
+    @Override
+    public void endTick(int tick, int enemies, int bombs) {
+    }
+
+    // Pathfinding counts towards the enemies
+    @Override
+    public void beginPhase(int phase) {
+        begin(phase == GameProbe.BOMBS ? BOMBS : ENEMIES);
+    }
+
+    @Override
+    public void endPhase(int phase) {
+        end(phase == GameProbe.BOMBS ? BOMBS : ENEMIES);
+    }
+
+    @Override
+    public void beginExplosion() {
+    }
+
+    @Override
+    public void endExplosion(int tileX, int tileY, int cellsDestroyed, int enemiesHit) {
+    }
+
+    @Override
+    public void beginMapLoad() {
+    }
+
+    @Override
+    public void endMapLoad(String map, int width, int height) {
+    }
+
+    @Override
+    public void stateChanged(String from, String to) {
+    }
+
+    public void endFrame() {
+        if (!enabled) return;
+        current[FRAME] = System.nanoTime() - started[FRAME];
+        current[DRAW_CALLS] = glProfiler.getDrawCalls();
+        current[TEXTURE_BINDINGS] = glProfiler.getTextureBindings();
+        current[ALLOCATED] = allocationCounter == null ? 0 : allocationCounter.allocatedBytes() - current[ALLOCATED];
+        for (int metric = 0; metric < METRICS; metric++) {
+            samples[metric][position] = current[metric];
+        }
+        position = (position + 1) % WINDOW;
+        frames = Math.min(frames + 1, WINDOW);
+
+        if (++sinceRefresh >= REFRESH_FRAMES) {
+            sinceRefresh = 0;
+            refresh();
+        }
+    }
+
+    // Draws the percentiles in the top left corner of the screen; call between batch.begin() and end()
+    public void draw(SpriteBatch batch) {
+        if (!enabled || text.length() == 0) return;
+        font.getData().setScale(Math.max(1, Gdx.graphics.getHeight() / 480f));
+        font.draw(batch, text, 10, Gdx.graphics.getHeight() - 170);
+    }
+
+    // Appends the current percentiles to CSV_FILE, one row per metric
+    public void export() {
+        if (frames == 0) return;
+        refresh();
+        FileHandle file = Gdx.files.local(CSV_FILE);
+        boolean header = !file.exists();
+        String time = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US).format(new Date());
+        String device = Gdx.app.getType() + " " + Gdx.app.getVersion();
+        Writer writer = null;
+        try {
+            writer = file.writer(true, "UTF-8");
+            if (header) {
+                writer.write("time,device,metric,frames,p50,p95,p99\n");
+            }
+            for (int metric = 0; metric < METRICS; metric++) {
+                long[] p = percentiles[metric];
+                long unit = metric < PHASES ? 1000 : 1; // Times in microseconds
+                writer.write(time + "," + device + "," + CSV_NAMES[metric] + "," + frames + ","
+                        + p[0] / unit + "," + p[1] / unit + "," + p[2] / unit + "\n");
+            }
+            EventLog.log(EXPORTED, frames, file.path());
+        } catch (IOException | GdxRuntimeException e) {
+            EventLog.log(EXPORT_FAILED, file.path(), e);
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    public void dispose() {
+        if (font != null) {
+            font.dispose();
+        }
+    }
+
+    private void refresh() {
+        for (int metric = 0; metric < METRICS; metric++) {
+            System.arraycopy(samples[metric], 0, sorted, 0, frames);
+            Arrays.sort(sorted, 0, frames);
+            percentiles[metric][0] = sorted[(frames - 1) * 50 / 100];
+            percentiles[metric][1] = sorted[(frames - 1) * 95 / 100];
+            percentiles[metric][2] = sorted[(frames - 1) * 99 / 100];
+        }
+
+        text.setLength(0);
+        text.append("p50 / p95 / p99 over ").append(frames).append(" frames\n");
+        for (int metric = 0; metric < METRICS; metric++) {
+            if (metric == ALLOCATED && allocationCounter == null) continue;
+            text.append(NAMES[metric]).append("  ");
+            for (int i = 0; i < 3; i++) {
+                if (i > 0) text.append(" / ");
+                if (metric < PHASES) {
+                    appendMillis(percentiles[metric][i]);
+                } else {
+                    text.append(percentiles[metric][i]);
+                }
+            }
+            text.append(metric < PHASES ? " ms\n" : metric == ALLOCATED ? " B\n" : "\n");
+        }
+    }
+
+    // Two decimals, without going through String.format
+    private void appendMillis(long nanos) {
+        long hundredths = nanos / 10000;
+        text.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) text.append('0');
+        text.append(fraction);
+    }
+}
@@ -0,0 +1,60 @@
+package com.mygdx.game;
+
+// Fixed-step clock for the simulation. Real time is measured with System.nanoTime() and
+// accumulated, and the game runs as many whole ticks as fit into it, so gameplay speed
+// does not depend on the frame rate. Whatever is left over is exposed as an alpha that
+// the renderer uses to interpolate between the last two ticks.
+public class GameClock {
+    private final long stepNanos;
+    private final float stepSeconds;
+    private final int maxTicksPerFrame;
+
+    private long lastTime;
+    private long accumulator;
+    private int ticks;
+    private float alpha;
+
+    public GameClock(int tickRate, int maxTicksPerFrame) {
+        this.stepNanos = 1000000000L / tickRate;
+        this.stepSeconds = 1.0f / tickRate;
+        this.maxTicksPerFrame = maxTicksPerFrame;
+        reset();
+    }
+
+    public void reset() {
+        lastTime = System.nanoTime();
+        accumulator = 0;
+        ticks = 0;
+        alpha = 0;
+    }
+
+    // Returns how many ticks should be simulated this frame
+    public int advance() {
+        long now = System.nanoTime();
+        accumulator += now - lastTime;
+        lastTime = now;
+
+        ticks = (int) Math.min(accumulator / stepNanos, maxTicksPerFrame);
+        accumulator -= ticks * stepNanos;
+        if (accumulator >= stepNanos) {
+            // Over the catch-up budget, drop the backlog instead of falling further behind
+            accumulator %= stepNanos;
+        }
+        alpha = (float) accumulator / stepNanos;
+        return ticks;
+    }
+
+    // The System.nanoTime() that tick i (from 0) of the last advance() simulates up to, so input
+    // events can be given to the tick they happened in
+    public long getTickTime(int tick) {
+        return lastTime - accumulator - (ticks - 1 - tick) * stepNanos;
+    }
+
+    public float getStepSeconds() {
+        return stepSeconds;
+    }
+
+    public float getAlpha() {
+        return alpha;
+    }
+}
@@ -0,0 +1,30 @@
+package com.mygdx.game;
+
+// Hooks for tools that watch the game from outside: the in-game FrameProfiler, or Java Flight
+// Recorder events in headless runs (JfrProbe). GameWorld and MyGdxGame only call them when a
+// probe is set, so without one a hook costs a null check.
+public interface GameProbe {
+    // Phases of a tick
+    int PATHFINDING = 0; // The flow field and line of sight the enemies steer by
+    int ENEMIES = 1; // The enemy pass and enemy-player collisions
+    int BOMBS = 2;
+
+    void beginTick(int tick);
+
+    void endTick(int tick, int enemies, int bombs);
+
+    void beginPhase(int phase);
+
+    void endPhase(int phase);
+
+    void beginExplosion();
+
+    void endExplosion(int tileX, int tileY, int cellsDestroyed, int enemiesHit);
+
+    void beginMapLoad();
+
+    void endMapLoad(String map, int width, int height);
+
+    // Names of MyGdxGame.GameState values
+    void stateChanged(String from, String to);
+}
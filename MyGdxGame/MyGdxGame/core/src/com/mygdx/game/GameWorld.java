@@ -0,0 +1,388 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.Pool;
+
+// All gameplay state and rules. Nothing in here touches GL, audio or Gdx.input, so the same
+// world runs inside MyGdxGame and under the headless backend.
+public class GameWorld {
+
+	// Presentation hooks; the world only reports what happened
+	public interface Listener {
+		void onBombPlaced(Bomb bomb);
+		void onBombExploded(Bomb bomb);
+		void onCellDestroyed(int tileX, int tileY);
+		void onPlayerKilled();
+		void onLevelCleared(String mapName);
+	}
+
+	public static final float BOMB_EXPLOSION_TIME = 2.0f;
+	public static final float BOMB_EXPLOSION_DURATION = 0.5f;
+	public static final float BOMB_COOLDOWN_TIME = 1.0f;
+	public static final int BOMB_RADIUS = 1; // Tiles, before power-ups
+	public static final int MAX_BOMB_RADIUS = 8;
+	public static final float MOVEMENT_COOLDOWN_TIME = 0.3f;
+	public static final int PLAYER_START_X = 1;
+	public static final int PLAYER_START_Y = 18;
+	public static final int PLAYER_LIVES = 3;
+	public static final int SIGHT_RANGE = 6; // Tiles
+	public static final int FLOW_FIELD_RANGE = 32; // Tiles; enemies further away wander instead
+	public static final int ACTIVE_RANGE = 24; // Tiles; enemies further away are off screen and update less often
+	public static final int FAR_UPDATE_INTERVAL = 4; // Ticks between updates of far-away enemies
+	// Map property: how many destructible blocks hide a power-up that makes the player's bombs
+	// reach one tile further (default none)
+	public static final String BOMB_POWER_UPS = "bombPowerUps";
+
+	private final Listener listener;
+	private final Array<EnemyType> enemyTypes;
+
+	private TiledMap tiledMap;
+	private TiledMapTileLayer mazeLayer;
+	private TiledMapTileLayer collisionLayer;
+	private TileGrid grid;
+	private SpatialHash enemyHash;
+	private FlowField flowField;
+	private LineOfSight lineOfSight;
+	private Detonator detonator;
+	private DangerMap dangerMap;
+
+	private Player player;
+	// Its seeded random numbers and where the power-ups hide are the only randomness in the simulation, so the seed decides how a game plays out
+	private final EnemyStore enemies;
+	private EnemyStore.Scheduler scheduler = EnemyStore.SERIAL;
+	private GameProbe probe;
+	private Array<Bomb> bombs;
+	private final Pool<Bomb> bombPool = new Pool<Bomb>() {
+		@Override
+		protected Bomb newObject() {
+			return new Bomb();
+		}
+	};
+	private final Spawner spawner = new Spawner();
+	private boolean spawning = true;
+	private float bombCooldown;
+	private int tick;
+	private final IntArray hits = new IntArray();
+	// As x + y * width, since the map was set; they stay destroyed across reset()
+	private final IntArray destroyedCells = new IntArray();
+	// Cells with a power-up not collected yet, as x + y * width; reset() hides them again
+	private final IntArray powerUps = new IntArray();
+	private final Vector2 hitPosition = new Vector2();
+
+	public GameWorld(Listener listener, Array<EnemyType> enemyTypes) {
+		this.listener = listener;
+		this.enemyTypes = enemyTypes;
+		this.player = new Player(new Vector2(PLAYER_START_X, PLAYER_START_Y), this);
+		this.enemies = new EnemyStore(enemyTypes, 16);
+		this.bombs = new Array<>();
+	}
+
+	// Switches to another map; the caller owns (and disposes) the map
+	public void setMap(TiledMap tiledMap) {
+		if (probe != null) probe.beginMapLoad();
+		this.tiledMap = tiledMap;
+		this.mazeLayer = (TiledMapTileLayer) tiledMap.getLayers().get("Maze");
+		this.collisionLayer = (TiledMapTileLayer) tiledMap.getLayers().get("Collision");
+		this.grid = new TileGrid(mazeLayer, collisionLayer, tiledMap.getProperties().get(BinaryMapLoader.TILE_FLAGS, byte[].class));
+		this.flowField = new FlowField(grid, FLOW_FIELD_RANGE);
+		this.lineOfSight = new LineOfSight(grid, SIGHT_RANGE);
+		this.detonator = new Detonator(this, grid);
+		this.dangerMap = new DangerMap(grid);
+		this.enemyHash = new SpatialHash(grid.getWidth(), grid.getHeight(), grid.getTileWidth(), grid.getTileHeight());
+		// The hash only looks one cell around an area, so a bigger enemy could touch things unseen
+		for (EnemyType type : enemyTypes) {
+			if (type.width > grid.getTileWidth() || type.height > grid.getTileHeight()) {
+				throw new GdxRuntimeException("Enemy type " + type.name + " is " + type.width + "x" + type.height
+						+ ", bigger than the " + grid.getTileWidth() + "x" + grid.getTileHeight() + " tiles of " + getMapName());
+			}
+		}
+		spawner.setMap(tiledMap, enemyTypes);
+		destroyedCells.clear();
+		// Room for every cell the map can lose, so destroying one never grows the array mid-match
+		destroyedCells.ensureCapacity(grid.countDestructible());
+		if (probe != null) probe.endMapLoad(getMapName(), grid.getWidth(), grid.getHeight());
+	}
+
+	// Starts a match on the current map. Everything but the cells destroyed so far goes back to
+	// how the level starts, and the seed decides the rest, so the same seed, destroyed cells and
+	// inputs always play out the same way.
+	public void reset(long seed) {
+		player.reset(PLAYER_LIVES);
+		enemies.setSeed(seed);
+		flowField.reset();
+		bombPool.freeAll(bombs);
+		bombs.clear();
+		grid.clearBombs();
+		detonator.clear();
+		dangerMap.clear();
+		bombCooldown = 0;
+		tick = 0;
+		clearEnemies();
+
+		// Have room for every enemy the level can need at once before it starts, then send the first wave
+		enemies.ensureCapacity(spawner.getPeakEnemies());
+		spawner.reset();
+		if (spawning) spawner.update(0, this);
+		placePowerUps(seed);
+	}
+
+	// Hides the map's power-ups under solid destructible blocks the seed picks, so the player
+	// reaches one only after a blast clears it
+	private void placePowerUps(long seed) {
+		powerUps.clear();
+		Object count = tiledMap.getProperties().get(BOMB_POWER_UPS);
+		if (!(count instanceof Number)) return;
+
+		IntArray blocks = new IntArray();
+		for (int y = 0; y < grid.getHeight(); y++) {
+			for (int x = 0; x < grid.getWidth(); x++) {
+				if (grid.is(x, y, TileGrid.DESTRUCTIBLE) && grid.isSolid(x, y)) {
+					blocks.add(x + y * grid.getWidth());
+				}
+			}
+		}
+		RandomXS128 random = new RandomXS128(seed);
+		for (int i = 0; i < ((Number) count).intValue() && blocks.size > 0; i++) {
+			int pick = random.nextInt(blocks.size);
+			powerUps.add(blocks.get(pick));
+			blocks.set(pick, blocks.peek());
+			blocks.pop();
+		}
+	}
+
+	// Spawns an enemy of the first type on the given tile and returns its slot in getEnemies()
+	public int spawnEnemy(int tileX, int tileY) {
+		return spawnEnemy(enemyTypes.first(), tileX, tileY);
+	}
+
+	public int spawnEnemy(EnemyType type, int tileX, int tileY) {
+		return enemies.add(type, tileX * grid.getTileWidth(), tileY * grid.getTileHeight());
+	}
+
+	public void clearEnemies() {
+		enemies.clear();
+	}
+
+	// Told about every tick, its phases, explosions and map loads; null when nothing watches
+	public void setProbe(GameProbe probe) {
+		this.probe = probe;
+	}
+
+	public GameProbe getProbe() {
+		return probe;
+	}
+
+	// How the enemy pass is split up; EnemyStore.SERIAL (the default) runs it all on this thread
+	public void setScheduler(EnemyStore.Scheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	// Whether the map's spawn points release their waves; off, only spawnEnemy() adds enemies
+	public void setSpawning(boolean spawning) {
+		this.spawning = spawning;
+	}
+
+	// Places a bomb on the given tile, ignoring the player's cooldown. Returns null if the tile
+	// already has one.
+	public Bomb placeBomb(int tileX, int tileY) {
+		return placeBomb(tileX, tileY, BOMB_RADIUS);
+	}
+
+	public Bomb placeBomb(int tileX, int tileY, int radius) {
+		if (grid.is(tileX, tileY, TileGrid.BOMB)) return null;
+		Bomb bomb = bombPool.obtain();
+		bomb.init(tileX, tileY, MathUtils.clamp(radius, 1, MAX_BOMB_RADIUS), BOMB_EXPLOSION_TIME, BOMB_EXPLOSION_DURATION, this);
+		bombs.add(bomb);
+		grid.setBomb(tileX, tileY, true);
+		detonator.place(bomb);
+		dangerMap.bombPlaced(tileX, tileY, bomb.getRadius(), BOMB_EXPLOSION_TIME);
+		return bomb;
+	}
+
+	public void update(float delta, PlayerInput input) {
+		if (probe != null) probe.beginTick(tick + 1);
+		dangerMap.advance(delta);
+		player.storePreviousPosition();
+		enemies.storePreviousPositions();
+
+		int moveX = input.moveX;
+		int moveY = input.moveY;
+		player.setVelocity(moveX, moveY);
+
+		// Cells outside the map count as solid
+		if (player.canMove() && (moveX != 0 || moveY != 0)
+				&& !grid.isSolid((int) player.getPosition().x + moveX, (int) player.getPosition().y + moveY)) {
+			player.move(moveX, moveY);
+		}
+
+		player.update(delta);
+
+		int powerUp = powerUps.indexOf((int) player.getPosition().x + (int) player.getPosition().y * grid.getWidth());
+		if (powerUp >= 0) {
+			powerUps.removeIndex(powerUp);
+			player.increaseBombRadius();
+		}
+
+		if (probe != null) probe.beginPhase(GameProbe.PATHFINDING);
+		// One search per player tile change, shared by every enemy
+		int playerX = (int) player.getPosition().x;
+		int playerY = (int) player.getPosition().y;
+		flowField.update(playerX, playerY);
+
+		// Everything the enemies read is settled before the pass, so it can be split across threads
+		lineOfSight.aim(playerX, playerY);
+		if (probe != null) probe.endPhase(GameProbe.PATHFINDING);
+		tick++;
+		if (probe != null) probe.beginPhase(GameProbe.ENEMIES);
+		if (spawning) spawner.update(delta, this);
+		enemies.update(delta, tick, this, scheduler);
+		enemyHash.rebuild(enemies);
+
+		// Only the enemies bucketed around the player can touch it
+		enemyHash.query(player.getBoundingBox(), hits);
+		for (int i = 0; i < hits.size; i++) {
+			int enemy = hits.get(i);
+			player.handleCollision(hitPosition.set(enemies.getX(enemy), enemies.getY(enemy)));
+		}
+		if (probe != null) probe.endPhase(GameProbe.ENEMIES);
+
+		if (input.placeBomb && bombCooldown <= 0) {
+			Bomb bomb = placeBomb((int) player.getPosition().x, (int) player.getPosition().y, player.getBombRadius());
+			if (bomb != null) {
+				bombCooldown = BOMB_COOLDOWN_TIME;
+				listener.onBombPlaced(bomb);
+			}
+		}
+
+		if (bombCooldown > 0) {
+			bombCooldown -= delta;
+		}
+
+		if (probe != null) probe.beginPhase(GameProbe.BOMBS);
+		for (int i = bombs.size - 1; i >= 0; i--) {
+			Bomb bomb = bombs.get(i);
+			if (bomb.update(delta)) {
+				detonator.trigger(bomb);
+			}
+		}
+		// Everything set off this tick, including the bombs the blasts reach, goes off in one pass
+		detonator.resolve();
+		for (int i = bombs.size - 1; i >= 0; i--) {
+			Bomb bomb = bombs.get(i);
+			if (bomb.isFinished()) {
+				bombs.removeIndex(i);
+				bombPool.free(bomb);
+			}
+		}
+		if (probe != null) probe.endPhase(GameProbe.BOMBS);
+
+		// Only once everything this tick has looked at the enemies, so nothing iterates them while they shrink
+		enemies.removeDead();
+
+		// Check if all enemies are killed and no more are coming
+		if (enemies.size == 0 && spawner.isFinished()) {
+			listener.onLevelCleared(getMapName());
+		}
+
+		if (player.getCooldown() > 0.0f)
+			player.reduceCooldown(delta);
+		if (probe != null) probe.endTick(tick, enemies.size, bombs.size);
+	}
+
+	void onBombExploded(Bomb bomb) {
+		grid.setBomb((int) bomb.getPosition().x, (int) bomb.getPosition().y, false);
+		dangerMap.bombExploded((int) bomb.getPosition().x, (int) bomb.getPosition().y);
+		listener.onBombExploded(bomb);
+	}
+
+	// Clears whatever a blast can break on the cell; false if there was nothing to break
+	boolean destroyCell(int tileX, int tileY) {
+		boolean blocked = grid.is(tileX, tileY, TileGrid.BLOCKS_BLAST);
+		if (!grid.destroy(tileX, tileY)) return false;
+		destroyedCells.add(tileX + tileY * grid.getWidth());
+		if (blocked && !grid.is(tileX, tileY, TileGrid.BLOCKS_BLAST)) {
+			dangerMap.cellOpened(tileX, tileY);
+		}
+		listener.onCellDestroyed(tileX, tileY);
+		return true;
+	}
+
+	public void killPlayer() {
+		player.setPosition(PLAYER_START_X, PLAYER_START_Y);
+		listener.onPlayerKilled();
+	}
+
+	public String getMapName() {
+		return tiledMap.getProperties().get("mapName", String.class);
+	}
+
+	public TiledMap getMap() {
+		return tiledMap;
+	}
+
+	public TiledMapTileLayer getCollisionLayer() {
+		return collisionLayer;
+	}
+
+	public TileGrid getGrid() {
+		return grid;
+	}
+
+	public FlowField getFlowField() {
+		return flowField;
+	}
+
+	public Detonator getDetonator() {
+		return detonator;
+	}
+
+	// When the next blast reaches each cell; settled before the enemy pass like the flow field
+	public DangerMap getDangerMap() {
+		return dangerMap;
+	}
+
+	public LineOfSight getLineOfSight() {
+		return lineOfSight;
+	}
+
+	// Valid from the enemy pass of update() until enemies are added or removed
+	public SpatialHash getEnemyHash() {
+		return enemyHash;
+	}
+
+	// Some may still be under their block; they show once the cell isn't solid
+	public IntArray getPowerUps() {
+		return powerUps;
+	}
+
+	public IntArray getDestroyedCells() {
+		return destroyedCells;
+	}
+
+	public long getSeed() {
+		return enemies.getSeed();
+	}
+
+	public Array<EnemyType> getEnemyTypes() {
+		return enemyTypes;
+	}
+
+	public Player getPlayer() {
+		return player;
+	}
+
+	public EnemyStore getEnemies() {
+		return enemies;
+	}
+
+	public Array<Bomb> getBombs() {
+		return bombs;
+	}
+}
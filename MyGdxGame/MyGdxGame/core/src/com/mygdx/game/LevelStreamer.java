@@ -0,0 +1,183 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+// Owns the map and map renderer of the level being played, and gets the next level of the
+// list ready in the background: the asset manager parses the map on its loader thread, then
+// the renderer is built and its opening view baked a chunk per frame. Moving on to the next
+// level only swaps references, and the old level is released right then.
+public class LevelStreamer implements Disposable {
+    public static final String LEVELS_FILE = "map/levels.txt";
+    private static final int LOAD_SLICE_MILLIS = 2; // Per frame, so preloading never costs a frame
+    private static final int BAKES_PER_FRAME = 1;
+    private static final EventLog.Message PRELOAD_FAILED = new EventLog.Message(EventLog.ERROR, "LevelStreamer", "Error preloading {}");
+
+    private final AssetManager assets;
+    private final OrthographicCamera camera;
+    private final Array<String> levels;
+
+    private int level = -1;
+    private TiledMap map;
+    private CachedMapRenderer renderer;
+
+    private TiledMap nextMap;
+    private CachedMapRenderer nextRenderer;
+    private boolean nextReady;
+
+    public LevelStreamer(AssetManager assets, OrthographicCamera camera, Array<String> levels) {
+        this.assets = assets;
+        this.camera = camera;
+        this.levels = levels;
+    }
+
+    // One map path per line; blank lines and lines starting with # are skipped
+    public static Array<String> readLevels(FileHandle file) {
+        Array<String> levels = new Array<>();
+        for (String line : file.readString("UTF-8").split("\n")) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                levels.add(line);
+            }
+        }
+        return levels;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public boolean hasNextLevel() {
+        return level + 1 < levels.size;
+    }
+
+    public TiledMap getMap() {
+        return map;
+    }
+
+    public CachedMapRenderer getRenderer() {
+        return renderer;
+    }
+
+    // Switches to the given level straight away, loading it first if it isn't in yet
+    public void start(int level) {
+        release();
+        this.level = level;
+        map = load(levels.get(level));
+        renderer = createRenderer(map);
+        queueNext();
+    }
+
+    // Switches to the next level. If preloading hasn't finished, the rest happens now.
+    public void advance() {
+        if (nextRenderer == null) {
+            nextMap = load(levels.get(level + 1));
+            nextRenderer = createRenderer(nextMap);
+        }
+        TiledMap map = nextMap;
+        CachedMapRenderer renderer = nextRenderer;
+        nextMap = null;
+        nextRenderer = null;
+        nextReady = false;
+
+        // Unloading a map also unloads tileset textures no other map still uses
+        this.renderer.dispose();
+        assets.unload(levels.get(level));
+        this.map = map;
+        this.renderer = renderer;
+        level++;
+        queueNext();
+    }
+
+    // Called once per frame while playing; does one small step of preloading
+    public void update() {
+        if (!hasNextLevel() || nextReady) {
+            return;
+        }
+        if (nextRenderer != null) {
+            nextReady = nextRenderer.prepare(BAKES_PER_FRAME);
+            return;
+        }
+
+        String path = levels.get(level + 1);
+        try {
+            assets.update(LOAD_SLICE_MILLIS);
+        } catch (Exception e) {
+            // advance() will try again and report it if the map is really broken
+            EventLog.log(PRELOAD_FAILED, path, e);
+            return;
+        }
+        if (assets.isLoaded(path, TiledMap.class)) {
+            nextMap = assets.get(path, TiledMap.class);
+            nextRenderer = createRenderer(nextMap);
+        }
+    }
+
+    private void queueNext() {
+        if (hasNextLevel()) {
+            assets.load(levels.get(level + 1), TiledMap.class);
+        }
+    }
+
+    // Queueing a map that is already queued would count it twice, so only queue it if needed
+    private TiledMap load(String path) {
+        if (!assets.contains(path)) {
+            assets.load(path, TiledMap.class);
+        }
+        return assets.finishLoadingAsset(path);
+    }
+
+    // Sized and aimed for the view the level opens with, the player's start
+    private CachedMapRenderer createRenderer(TiledMap map) {
+        TiledMapTileLayer layer = (TiledMapTileLayer) map.getLayers().get(0);
+        float mapWidth = layer.getTileWidth() * layer.getWidth();
+        float mapHeight = layer.getTileHeight() * layer.getHeight();
+        float zoom = MyGdxGame.viewZoom(map, camera.viewportWidth, camera.viewportHeight);
+        float viewWidth = camera.viewportWidth * zoom;
+        float viewHeight = camera.viewportHeight * zoom;
+
+        CachedMapRenderer renderer = new CachedMapRenderer(map, viewWidth, viewHeight);
+        renderer.setView(MyGdxGame.clampToMap((GameWorld.PLAYER_START_X + 0.5f) * layer.getTileWidth(), viewWidth, mapWidth),
+                MyGdxGame.clampToMap((GameWorld.PLAYER_START_Y + 0.5f) * layer.getTileHeight(), viewHeight, mapHeight),
+                viewWidth, viewHeight);
+        return renderer;
+    }
+
+    // Disposes both levels' renderers and hands their maps back to the asset manager
+    private void release() {
+        if (renderer != null) {
+            renderer.dispose();
+            renderer = null;
+        }
+        if (nextRenderer != null) {
+            nextRenderer.dispose();
+            nextRenderer = null;
+        }
+        if (level >= 0) {
+            unload(levels.get(level));
+            if (hasNextLevel()) {
+                unload(levels.get(level + 1));
+            }
+        }
+        map = null;
+        nextMap = null;
+        nextReady = false;
+    }
+
+    private void unload(String path) {
+        if (assets.contains(path)) {
+            assets.unload(path);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        release();
+    }
+}
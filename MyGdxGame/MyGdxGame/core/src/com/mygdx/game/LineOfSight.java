@@ -0,0 +1,95 @@
+package com.mygdx.game;
+
+// Tile-grid visibility: a Bresenham line from one cell to another that any solid cell blocks,
+// limited to a range in tiles. Every enemy asks about the same target (the player), so results
+// are remembered per source cell until the target changes cell or the grid changes.
+//
+// Once aim() has been called for the target, canSee() can be called from several threads at
+// once: each cell's result and stamp share one int, so a reader sees either a whole entry or
+// none and at worst traces the line again.
+public class LineOfSight {
+    private static final int VISIBLE = 1;
+
+    private final TileGrid grid;
+    private final int width;
+    private int range;
+
+    // Per cell, the stamp shifted left by one plus VISIBLE or 0. A cell's result is only valid
+    // while its stamp matches the current one.
+    private final int[] cache;
+    private int stamp = 1;
+
+    private int targetX = -1;
+    private int targetY = -1;
+    private int gridVersion;
+
+    public LineOfSight(TileGrid grid, int range) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.range = range;
+        this.cache = new int[grid.getWidth() * grid.getHeight()];
+        this.gridVersion = grid.getVersion();
+    }
+
+    public int getRange() {
+        return range;
+    }
+
+    public void setRange(int range) {
+        this.range = range;
+        stamp++;
+    }
+
+    // Forgets the remembered results if the target moved or the grid changed since the last call
+    public void aim(int toX, int toY) {
+        if (toX != targetX || toY != targetY || grid.getVersion() != gridVersion) {
+            targetX = toX;
+            targetY = toY;
+            gridVersion = grid.getVersion();
+            stamp++;
+        }
+    }
+
+    public boolean canSee(int fromX, int fromY, int toX, int toY) {
+        if (!grid.isInBounds(fromX, fromY)) {
+            return trace(fromX, fromY, toX, toY);
+        }
+        aim(toX, toY);
+
+        int cell = fromX + fromY * width;
+        int entry = cache[cell];
+        if (entry >>> 1 != stamp) {
+            entry = stamp << 1 | (trace(fromX, fromY, toX, toY) ? VISIBLE : 0);
+            cache[cell] = entry;
+        }
+        return (entry & VISIBLE) != 0;
+    }
+
+    private boolean trace(int x, int y, int toX, int toY) {
+        int dx = Math.abs(toX - x);
+        int dy = Math.abs(toY - y);
+        if (dx * dx + dy * dy > range * range) {
+            return false;
+        }
+
+        int stepX = x < toX ? 1 : -1;
+        int stepY = y < toY ? 1 : -1;
+        int error = dx - dy;
+        while (x != toX || y != toY) {
+            int error2 = 2 * error;
+            if (error2 > -dy) {
+                error -= dy;
+                x += stepX;
+            }
+            if (error2 < dx) {
+                error += dx;
+                y += stepY;
+            }
+            // The target's own cell never blocks
+            if ((x != toX || y != toY) && grid.isSolid(x, y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -3,39 +3,53 @@ package com.mygdx.game;
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.InputMultiplexer;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.AtlasTmxMapLoader;
 import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.maps.tiled.TiledMapRenderer;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
-import com.badlogic.gdx.maps.tiled.TmxMapLoader;
-import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.graphics.Color;
 
-import java.util.ArrayList;
-import java.util.Iterator;
+public class MyGdxGame extends ApplicationAdapter implements GameWorld.Listener {
 
-public class MyGdxGame extends ApplicationAdapter {
-
-	public enum GameState { MAIN_MENU, PLAYING, PAUSED, GAME_OVER, WIN }
+	public enum GameState { LOADING, MAIN_MENU, PLAYING, PAUSED, GAME_OVER, WIN }
 
 
 	public static final float FRAME_COLS = 3;
 	public static final float FRAME_COLSDEATH = 5;
 	public static final float FRAME_ROWS = 1;
-	public static final float BOMB_EXPLOSION_TIME = 2.0f;
-	public static final float BOMB_COOLDOWN_TIME = 1.0f;
-	public static final float MOVEMENT_COOLDOWN_TIME = 0.3f;
+	public static final int TICK_RATE = 60;
+	public static final int MAX_TICKS_PER_FRAME = 5;
+	private static final int LOAD_SLICE_MILLIS = 16; // Loading time per frame, so the progress screen stays responsive
+	private static final int VIEW_TILES = 20; // Tiles shown top to bottom; larger maps scroll with the player
+	private static final long PROFILER_HOLD_NANOS = 3000000000L; // Finger held on the corner to toggle the profiler
+	private static final float PROFILER_CORNER = 0.1f; // Of the shorter screen side
+
+	private static final String UI_ATLAS = "atlas/ui.atlas";
+
+	private static final EventLog.Message ASSET_LOAD_FAILED = new EventLog.Message(EventLog.ERROR, "MyGdxGame", "Error loading assets");
+	private static final EventLog.Message STARTUP = new EventLog.Message(EventLog.INFO, "Startup", "{} ms from launch to first interactive frame ({} ms loading assets)");
+	private static final EventLog.Message BUTTON_CLICKED = new EventLog.Message(EventLog.INFO, "Button", "{} button clicked");
+	private static final EventLog.Message REPLAY_NOT_KEPT = new EventLog.Message(EventLog.ERROR, "Replay", "Could not keep the previous replay");
+	// Local files; the match before the last is kept too, in case that was the one worth reporting
+	static final String REPLAY_FILE = "replays/last.replay";
+	static final String PREVIOUS_REPLAY_FILE = "replays/previous.replay";
 
 	private static MyGdxGame instance;
 
@@ -43,60 +57,47 @@ public class MyGdxGame extends ApplicationAdapter {
 		return instance;
 	}
 
-	public Sound getExplosionSound() {
-		return explosionSound;
-	}
+	GameState gameState = GameState.LOADING;
 
-	GameState gameState = GameState.MAIN_MENU;
+	// Assets and startup timing
+	AssetManager assets;
+	private final long launchNanos;
+	private long loadStartNanos;
 
 	// Map and rendering
 	SpriteBatch batch;
 	SpriteBatch uiBatch;
+	Array<String> levels;
+	Array<EnemyType> enemyTypes;
+	LevelStreamer levelStreamer;
 	TiledMap tiledMap;
-	TiledMapRenderer tiledMapRenderer;
 	OrthographicCamera camera;
+	float mapWidth;
+	float mapHeight;
 
 	// Game clock
-	long lastTime;
-	float elapsedTime;
-
-	// Player Character
-	Player player;
-	float movementCooldown;
-
-	// Enemy
-	Animation<TextureRegion> enemyRightAnimation;
-	Animation<TextureRegion> enemyLeftAnimation;
-	Animation<TextureRegion> enemyFrontAnimation;
-	Animation<TextureRegion> enemyBackAnimation;
-	Animation<TextureRegion> enemyDeathAnimation;
-
-	TextureRegion[] enemyFrameRight;
-	TextureRegion[] enemyFrameLeft;
-	TextureRegion[] enemyFramesBack;
-	TextureRegion[] enemyFramesFront;
-	TextureRegion[] enemyFramesDeath;
-	Texture enemyDeath;
-	Texture enemyFlyRight;
-	Texture enemyFlyLeft;
-	Texture enemyFlyBack;
-	Texture enemyFlyFront;
-	SpriteBatch spriteBatch;
-	float stateTime;
+	GameClock clock;
 
-	Array<Enemy> enemies;
+	// Simulation
+	GameWorld world;
+	PlayerInput playerInput;
+	final ReplayRecorder replayRecorder = new ReplayRecorder();
+
+	// Player, enemies and bombs
+	WorldRenderer worldRenderer;
+	float stateTime;
 
 	// UI textures
-	Texture buttonSquareTexture;
-	Texture buttonSquareDownTexture;
-	Texture buttonLongTexture;
-	Texture buttonLongDownTexture;
-	Texture playButtonTexture;
-	Texture exitButtonTexture;
-	Texture retryButtonTexture;
-	Texture menuButtonTexture;
-	Texture winTexture;
-	Texture heartTexture;
+	TextureRegion buttonSquareTexture;
+	TextureRegion buttonSquareDownTexture;
+	TextureRegion buttonLongTexture;
+	TextureRegion buttonLongDownTexture;
+	TextureRegion playButtonTexture;
+	TextureRegion exitButtonTexture;
+	TextureRegion retryButtonTexture;
+	TextureRegion menuButtonTexture;
+	TextureRegion winTexture;
+	TextureRegion heartTexture;
 
 	// UI Buttons
 	Button moveLeftButton;
@@ -111,15 +112,68 @@ public class MyGdxGame extends ApplicationAdapter {
 
 	private Button placeBombButton;
 
-	private Texture pauseButtonTexture;
+	private TextureRegion pauseButtonTexture;
 	private Button pauseButton;
+	private Button resumeButton; // The whole screen while paused; never drawn
+
+	// Input: every screen has its own buttons, and only the current screen's get events
+	private final InputMultiplexer inputMultiplexer = new InputMultiplexer();
+	private ButtonInput menuInput;
+	private ButtonInput playInput;
+	private ButtonInput pausedInput;
+	private ButtonInput gameOverInput;
+	private ButtonInput winInput;
+	private ButtonInput currentInput;
+
+	// F3, or a finger held on the top left corner for a few seconds, shows or hides the profiler
+	// overlay and the hitbox outlines. The touch still reaches the buttons; only a long hold that
+	// stays in the corner counts, so players don't open it by accident.
+	final FrameProfiler profiler = new FrameProfiler();
+	private GameProbe probe = profiler;
+	private final InputAdapter profilerToggle = new InputAdapter() {
+		private int holdPointer = -1;
+		private long holdStart;
+
+		@Override
+		public boolean keyDown(int keycode) {
+			if (keycode != Input.Keys.F3) return false;
+			toggleProfiler();
+			return true;
+		}
+
+		@Override
+		public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+			if (holdPointer == -1 && inCorner(screenX, screenY)) {
+				holdPointer = pointer;
+				holdStart = System.nanoTime();
+			}
+			return false;
+		}
 
-	// Bomb
-	private Texture bombTexture;
-	private ArrayList<Bomb> bombs;
-	private float bombCooldown;
+		@Override
+		public boolean touchDragged(int screenX, int screenY, int pointer) {
+			if (pointer == holdPointer && !inCorner(screenX, screenY)) {
+				holdPointer = -1;
+			}
+			return false;
+		}
 
-	private Texture explosionTexture;
+		@Override
+		public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+			if (pointer != holdPointer) return false;
+			holdPointer = -1;
+			if (System.nanoTime() - holdStart >= PROFILER_HOLD_NANOS) {
+				toggleProfiler();
+			}
+			return false;
+		}
+
+		// screenY counts down from the top
+		private boolean inCorner(int screenX, int screenY) {
+			float size = Math.min(Gdx.graphics.getWidth(), Gdx.graphics.getHeight()) * PROFILER_CORNER;
+			return screenX < size && screenY < size;
+		}
+	};
 
 	// Sounds and Music
 	private Music backgroundMusic;
@@ -130,50 +184,89 @@ public class MyGdxGame extends ApplicationAdapter {
 
 	private ShapeRenderer shapeRenderer;
 	private Texture startScreenTexture;
-	private Texture winScreenTexture;
+
+	public MyGdxGame() {
+		this(System.nanoTime());
+	}
+
+	// launchNanos is the System.nanoTime() at which the process started, if the launcher knows it
+	public MyGdxGame(long launchNanos) {
+		this.launchNanos = launchNanos;
+	}
 
 	@Override
 	public void create() {
+		// Logging, formatted and written off the game thread
+		EventLog.setLevel(Gdx.app.getLogLevel());
+		EventLog.start(new EventLog.GdxSink());
+
 		// Rendering
 		batch = new SpriteBatch();
 		uiBatch = new SpriteBatch();
+		shapeRenderer = new ShapeRenderer();
+
+		// Queue everything; render() loads a slice per frame and shows progress meanwhile
+		assets = new AssetManager();
+		// Maps take their tiles from the atlas named in the map's "atlas" property; levels ship
+		// compiled to .bmap, the TMX sources still load for testing
+		assets.setLoader(TiledMap.class, new AtlasTmxMapLoader(new InternalFileHandleResolver()));
+		assets.setLoader(TiledMap.class, ".bmap", new BinaryMapLoader(new InternalFileHandleResolver()));
+		levels = LevelStreamer.readLevels(Gdx.files.internal(LevelStreamer.LEVELS_FILE));
+		assets.load(levels.first(), TiledMap.class);
+		assets.load(UI_ATLAS, TextureAtlas.class);
+		// Full-screen backdrop, too big to share an atlas page
+		assets.load("StartScreen.png", Texture.class);
+		WorldRenderer.queue(assets);
+		assets.load("Sounds/background1.mp3", Music.class);
+		assets.load("Sounds/blink.wav", Sound.class);
+		assets.load("Sounds/shoot.wav", Sound.class);
+		assets.load("Sounds/jump.wav", Sound.class);
+		assets.load("Sounds/collision.wav", Sound.class);
+		loadStartNanos = System.nanoTime();
+		setGameState(GameState.LOADING);
+	}
 
-		// Load map
-		tiledMap = new TmxMapLoader().load("map/map.tmx");
-		tiledMapRenderer = new OrthogonalTiledMapRenderer(tiledMap);
+	// Replaces the frame profiler as what the world and state changes report to, e.g. with
+	// Java Flight Recorder events on desktop; call before create()
+	public void setProbe(GameProbe probe) {
+		this.probe = probe;
+	}
 
-		// Camera setup
+	private void setGameState(GameState state) {
+		if (state != gameState && probe != null) {
+			probe.stateChanged(gameState.name(), state.name());
+		}
+		gameState = state;
+	}
+
+	// Runs once every queued asset is in; builds everything that needs them
+	private void finishLoading() {
+		// Map
 		float w = Gdx.graphics.getWidth();
 		float h = Gdx.graphics.getHeight();
 		camera = new OrthographicCamera(w, h);
-		TiledMapTileLayer layer = (TiledMapTileLayer) tiledMap.getLayers().get(0);
-		float mapWidth = layer.getTileWidth() * layer.getWidth();
-		float mapHeight = layer.getTileHeight() * layer.getHeight();
-		camera.zoom = Math.max(mapWidth / w, mapHeight / h);
-		camera.update();
-
-		// Textures
-		try {
-			buttonSquareTexture = new Texture("button/buttonSquare_blue.png");
-			buttonSquareDownTexture = new Texture("button/buttonSquare_beige_pressed.png");
-			buttonLongTexture = new Texture("button/buttonLong_blue.png");
-			buttonLongDownTexture = new Texture("button/buttonLong_beige_pressed.png");
-			playButtonTexture = new Texture("button/PlayBtn.png");
-			exitButtonTexture = new Texture("button/CloseBtn.png");
-			retryButtonTexture = new Texture("button/RestartBtn.png");
-			menuButtonTexture = new Texture("button/MenuBtn.png");
-			winTexture = new Texture("items/win.png");
-			heartTexture = new Texture("items/heart.png");
-		} catch (Exception e) {
-			Gdx.app.log("MyGdxGame", "Error loading textures: " + e.getMessage());
-			e.printStackTrace();
-		}
-
-		// Load textures for the new place bomb button
-		Texture bombButtonUpTexture = new Texture("Attack.png");
-		Texture bombButtonDownTexture = new Texture("Attack.png");
+		levelStreamer = new LevelStreamer(assets, camera, levels);
+		levelStreamer.start(0);
+		tiledMap = levelStreamer.getMap();
 
+		// Camera setup
+		setupCamera();
 
+		// Textures
+		TextureAtlas ui = assets.get(UI_ATLAS, TextureAtlas.class);
+		buttonSquareTexture = ui.findRegion("buttonSquare_blue");
+		buttonSquareDownTexture = ui.findRegion("buttonSquare_beige_pressed");
+		buttonLongTexture = ui.findRegion("buttonLong_blue");
+		buttonLongDownTexture = ui.findRegion("buttonLong_beige_pressed");
+		playButtonTexture = ui.findRegion("PlayBtn");
+		exitButtonTexture = ui.findRegion("CloseBtn");
+		retryButtonTexture = ui.findRegion("RestartBtn");
+		menuButtonTexture = ui.findRegion("MenuBtn");
+		winTexture = ui.findRegion("win");
+		heartTexture = ui.findRegion("heart");
+		pauseButtonTexture = ui.findRegion("PauseBtn");
+		startScreenTexture = assets.get("StartScreen.png", Texture.class);
+		TextureRegion bombButtonTexture = ui.findRegion("Attack");
 
 		// Initialize buttons
 		float buttonSize = h * 0.2f;
@@ -194,162 +287,113 @@ public class MyGdxGame extends ApplicationAdapter {
 		retryButton = new Button(centerX - playButtonWidth - buttonSpacing / 2, centerY - playButtonHeight - 20, playButtonWidth, playButtonHeight, retryButtonTexture, retryButtonTexture);
 		menuButton = new Button(centerX + buttonSpacing / 2, centerY - playButtonHeight - 20, playButtonWidth, playButtonHeight, menuButtonTexture, menuButtonTexture);
 
-		// Load pause button texture
-		try {
-			pauseButtonTexture = new Texture("PauseBtn.png");
-		} catch (Exception e) {
-			Gdx.app.log("MyGdxGame", "Error loading pause button texture: " + e.getMessage());
-			e.printStackTrace();
-		}
-
 		// Initialize pause button
 		pauseButton = new Button(Gdx.graphics.getWidth() - buttonSize - 10, Gdx.graphics.getHeight() - buttonSize - 10, buttonSize, buttonSize, pauseButtonTexture, pauseButtonTexture);
-		// Load win screen texture
-		try {
-			winScreenTexture = new Texture("items/WinScreen.png");
-		} catch (Exception e) {
-			Gdx.app.log("MyGdxGame", "Error loading win screen texture: " + e.getMessage());
-			e.printStackTrace();
-		}
 
 		// Initialize the place bomb button with image textures
-		placeBombButton = new Button(w - buttonSize - buttonSize, buttonSize, buttonSize, buttonSize, bombButtonUpTexture, bombButtonDownTexture);
-
-		// Player
-		player = new Player(new Vector2(1, 18), this);
-
-		// Bomb
-		try {
-			bombTexture = new Texture("items/bomb.png");
-			explosionTexture = new Texture("fxs/explosion.png");
-		} catch (Exception e) {
-			Gdx.app.log("MyGdxGame", "Error loading bomb/explosion textures: " + e.getMessage());
-			e.printStackTrace();
-		}
-		bombs = new ArrayList<>();
-		bombCooldown = 0;
-
-		// Enemy
-		createEnemyAnimations();
-
-		enemies = new Array<>();
-
-		// Spawn enemies
-		spawnEnemies();
+		placeBombButton = new Button(w - buttonSize - buttonSize, buttonSize, buttonSize, buttonSize, bombButtonTexture, bombButtonTexture);
+		resumeButton = new Button(0, 0, w, h, null, null);
+
+		// Input
+		menuInput = new ButtonInput();
+		menuInput.add(playButton);
+		menuInput.add(exitButton);
+		playInput = new ButtonInput();
+		playInput.add(moveLeftButton);
+		playInput.add(moveRightButton);
+		playInput.add(moveDownButton);
+		playInput.add(moveUpButton);
+		playInput.add(placeBombButton);
+		playInput.add(pauseButton);
+		playInput.mapKey(Input.Keys.LEFT, moveLeftButton);
+		playInput.mapKey(Input.Keys.RIGHT, moveRightButton);
+		playInput.mapKey(Input.Keys.DOWN, moveDownButton);
+		playInput.mapKey(Input.Keys.UP, moveUpButton);
+		pausedInput = new ButtonInput();
+		pausedInput.add(resumeButton);
+		gameOverInput = new ButtonInput();
+		gameOverInput.add(retryButton);
+		winInput = new ButtonInput();
+		winInput.add(retryButton);
+		winInput.add(menuButton);
+		Gdx.input.setInputProcessor(inputMultiplexer);
+
+		// Player, enemies and bombs
+		enemyTypes = EnemyType.load(Gdx.files.internal(EnemyType.FILE));
+		worldRenderer = new WorldRenderer(assets, enemyTypes);
+
+		// Simulation
+		world = new GameWorld(this, enemyTypes);
+		world.setProbe(probe);
+		world.setMap(tiledMap);
+		world.reset(MathUtils.random.nextLong());
+		playerInput = new PlayerInput();
 
 		// Game state variables
-		lastTime = System.currentTimeMillis();
-		elapsedTime = 0.0f;
+		clock = new GameClock(TICK_RATE, MAX_TICKS_PER_FRAME);
 		stateTime = 0.0f;
 
-		// Load sounds and music
-		try {
-			backgroundMusic = Gdx.audio.newMusic(Gdx.files.internal("Sounds/background1.mp3"));
-			movementSound = Gdx.audio.newSound(Gdx.files.internal("Sounds/blink.wav"));
-			placeBombSound = Gdx.audio.newSound(Gdx.files.internal("Sounds/shoot.wav"));
-			buttonClickSound = Gdx.audio.newSound(Gdx.files.internal("Sounds/jump.wav"));
-			explosionSound = Gdx.audio.newSound(Gdx.files.internal("Sounds/collision.wav"));
-		} catch (Exception e) {
-			Gdx.app.log("MyGdxGame", "Error loading sounds: " + e.getMessage());
-			e.printStackTrace();
-		}
+		// Sounds and music
+		backgroundMusic = assets.get("Sounds/background1.mp3", Music.class);
+		movementSound = assets.get("Sounds/blink.wav", Sound.class);
+		placeBombSound = assets.get("Sounds/shoot.wav", Sound.class);
+		buttonClickSound = assets.get("Sounds/jump.wav", Sound.class);
+		explosionSound = assets.get("Sounds/collision.wav", Sound.class);
 		instance = this;
 
 		// Play background music
 		backgroundMusic.setLooping(true);
 		backgroundMusic.play();
+	}
 
-		// Bounding box
-		this.shapeRenderer = new ShapeRenderer();
-
-		// Load start screen texture
+	private void renderLoading() {
+		boolean done;
 		try {
-			startScreenTexture = new Texture("StartScreen.png");
+			done = assets.update(LOAD_SLICE_MILLIS);
 		} catch (Exception e) {
-			Gdx.app.log("MyGdxGame", "Error loading start screen texture: " + e.getMessage());
-			e.printStackTrace();
+			// A broken file only loses that asset, like a failed new Texture() did before
+			EventLog.log(ASSET_LOAD_FAILED, e);
+			done = assets.isFinished();
 		}
-	}
 
-
-
-	private void createEnemyAnimations() {
-		enemyFlyRight = new Texture(Gdx.files.internal("enemies/fly-right.png"));
-		enemyFlyLeft = new Texture(Gdx.files.internal("enemies/fly-left.png"));
-		enemyFlyFront = new Texture(Gdx.files.internal("enemies/fly-front.png"));
-		enemyFlyBack = new Texture(Gdx.files.internal("enemies/fly-back.png"));
-		enemyDeath = new Texture(Gdx.files.internal("enemies/death-front.png"));
-
-		int frameCols = (int) FRAME_COLS;
-		int frameRows = (int) FRAME_ROWS;
-		int frameColsDeath = (int) FRAME_COLSDEATH;
-
-		TextureRegion[][] tempRight = TextureRegion.split(enemyFlyRight, enemyFlyRight.getWidth() / frameCols, enemyFlyRight.getHeight() / frameRows);
-		TextureRegion[][] tempLeft = TextureRegion.split(enemyFlyLeft, enemyFlyLeft.getWidth() / frameCols, enemyFlyLeft.getHeight() / frameRows);
-		TextureRegion[][] tempFront = TextureRegion.split(enemyFlyFront, enemyFlyFront.getWidth() / frameCols, enemyFlyFront.getHeight() / frameRows);
-		TextureRegion[][] tempBack = TextureRegion.split(enemyFlyBack, enemyFlyBack.getWidth() / frameCols, enemyFlyBack.getHeight() / frameRows);
-		TextureRegion[][] tempDeath = TextureRegion.split(enemyDeath, enemyDeath.getWidth() / frameColsDeath, enemyDeath.getHeight() / frameRows);
-
-		enemyFrameRight = new TextureRegion[frameCols * frameRows];
-		enemyFrameLeft = new TextureRegion[frameCols * frameRows];
-		enemyFramesBack = new TextureRegion[frameCols * frameRows];
-		enemyFramesFront = new TextureRegion[frameCols * frameRows];
-		enemyFramesDeath = new TextureRegion[frameColsDeath * frameCols];
-
-		int index = 0;
-		for (int i = 0; i < frameRows; i++) {
-			for (int j = 0; j < frameCols; j++) {
-				enemyFrameRight[index] = tempRight[i][j];
-				enemyFrameLeft[index] = tempLeft[i][frameCols - j - 1];
-				enemyFramesFront[index] = tempFront[i][j];
-				enemyFramesBack[index] = tempBack[i][j];
-				index++;
-			}
+		if (done) {
+			long assetMillis = (System.nanoTime() - loadStartNanos) / 1000000;
+			finishLoading();
+			setGameState(GameState.MAIN_MENU);
+			renderMainMenu();
+			// The menu now takes input, so this is the first interactive frame
+			long startupMillis = (System.nanoTime() - launchNanos) / 1000000;
+			EventLog.log(STARTUP, startupMillis, assetMillis);
+			return;
 		}
 
-		index = 0;
-		for (int i = 0; i < frameRows; i++) {
-			for (int j = 0; j < frameColsDeath; j++) {
-				enemyFramesDeath[index] = tempDeath[i][j];
-				index++;
-			}
-		}
-
-		spriteBatch = new SpriteBatch();
-		enemyRightAnimation = new Animation<>(0.5f, enemyFrameRight);
-		enemyLeftAnimation = new Animation<>(0.5f, enemyFrameLeft);
-		enemyFrontAnimation = new Animation<>(0.5f, enemyFramesFront);
-		enemyBackAnimation = new Animation<>(0.5f, enemyFramesBack);
-		enemyDeathAnimation = new Animation<>(0.5f, enemyFramesDeath);
-	}
+		Gdx.gl.glClearColor(0, 0, 0, 1);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-	private void spawnEnemies() {
-		MapLayer collisionLayer = tiledMap.getLayers().get("Collision");
-		TiledMapTileLayer tileLayer = (TiledMapTileLayer) collisionLayer;
-
-		Vector2 spawnPosition1 = new Vector2(5, 18);
-		float worldX1 = spawnPosition1.x * tileLayer.getTileWidth();
-		float worldY1 = spawnPosition1.y * tileLayer.getTileHeight();
-		Vector2 worldSpawnPosition1 = new Vector2(worldX1, worldY1);
-		Enemy enemy1 = new Enemy(worldSpawnPosition1, enemyRightAnimation, enemyLeftAnimation, enemyFrontAnimation, enemyBackAnimation, enemyDeathAnimation, this, player, tileLayer);
-		enemies.add(enemy1);
-
-		Vector2 spawnPosition2 = new Vector2(9, 5);
-		float worldX2 = spawnPosition2.x * tileLayer.getTileWidth();
-		float worldY2 = spawnPosition2.y * tileLayer.getTileHeight();
-		Vector2 worldSpawnPosition2 = new Vector2(worldX2, worldY2);
-		Enemy enemy2 = new Enemy(worldSpawnPosition2, enemyRightAnimation, enemyLeftAnimation, enemyFrontAnimation, enemyBackAnimation, enemyDeathAnimation, this, player, tileLayer);
-		enemies.add(enemy2);
+		// Progress bar
+		float w = Gdx.graphics.getWidth();
+		float h = Gdx.graphics.getHeight();
+		float barWidth = w * 0.6f;
+		float barHeight = h * 0.03f;
+		float barX = (w - barWidth) / 2;
+		float barY = (h - barHeight) / 2;
+		shapeRenderer.getProjectionMatrix().setToOrtho2D(0, 0, w, h);
+		shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+		shapeRenderer.setColor(Color.DARK_GRAY);
+		shapeRenderer.rect(barX, barY, barWidth, barHeight);
+		shapeRenderer.setColor(Color.WHITE);
+		shapeRenderer.rect(barX, barY, barWidth * assets.getProgress(), barHeight);
+		shapeRenderer.end();
 	}
 
 	@Override
 	public void render() {
-		long currentTime = System.currentTimeMillis();
-		elapsedTime = (currentTime - lastTime) / 1000.0f;
-		lastTime = currentTime;
-		stateTime += elapsedTime;
+		stateTime += Gdx.graphics.getDeltaTime();
 
 		switch (gameState) {
+			case LOADING:
+				renderLoading();
+				break;
 			case MAIN_MENU:
 				renderMainMenu();
 				break;
@@ -363,25 +407,35 @@ public class MyGdxGame extends ApplicationAdapter {
 				renderWin();
 				break;
 			case PAUSED:
-				// Check for touch input to resume the game
-				if (Gdx.input.isTouched()) {
-					gameState = GameState.PLAYING;
+				// Any touch resumes the game
+				useInput(pausedInput).update(Long.MAX_VALUE);
+				if (pausedInput.wasPressed(resumeButton)) {
+					setGameState(GameState.PLAYING);
+					clock.reset();
 				}
 				break;
 		}
 	}
 
+	// Sends input events to the given screen's buttons from now on. A screen starts with no
+	// buttons held, whatever was touched on the one before.
+	private ButtonInput useInput(ButtonInput input) {
+		if (input != currentInput) {
+			inputMultiplexer.clear();
+			inputMultiplexer.addProcessor(profilerToggle);
+			inputMultiplexer.addProcessor(input);
+			input.reset();
+			currentInput = input;
+		}
+		return input;
+	}
+
 
 	private void renderMainMenu() {
 		Gdx.gl.glClearColor(0, 0, 0, 1);
 		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-		boolean checkTouch = Gdx.input.isTouched();
-		int touchX = Gdx.input.getX();
-		int touchY = Gdx.input.getY();
-
-		playButton.update(checkTouch, touchX, touchY);
-		exitButton.update(checkTouch, touchX, touchY);
+		useInput(menuInput).update(Long.MAX_VALUE);
 
 		// Draw start screen texture
 		uiBatch.begin();
@@ -396,13 +450,13 @@ public class MyGdxGame extends ApplicationAdapter {
 		exitButton.draw(uiBatch);
 		uiBatch.end();
 
-		if (playButton.isDown) {
-			Gdx.app.log("Button", "Play button clicked");
+		if (menuInput.wasPressed(playButton)) {
+			EventLog.log(BUTTON_CLICKED, "Play");
 			buttonClickSound.play();
-			gameState = GameState.PLAYING;
+			setGameState(GameState.PLAYING);
 			newGame();
-		} else if (exitButton.isDown) {
-			Gdx.app.log("Button", "Exit button clicked");
+		} else if (menuInput.wasPressed(exitButton)) {
+			EventLog.log(BUTTON_CLICKED, "Exit");
 			buttonClickSound.play();
 			Gdx.app.exit();
 		}
@@ -413,47 +467,55 @@ public class MyGdxGame extends ApplicationAdapter {
 		Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
 		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-		updateGame();
-
-		// Center the camera on the map
-		float mapWidth = ((TiledMapTileLayer) tiledMap.getLayers().get(0)).getWidth() * ((TiledMapTileLayer) tiledMap.getLayers().get(0)).getTileWidth();
-		float mapHeight = ((TiledMapTileLayer) tiledMap.getLayers().get(0)).getHeight() * ((TiledMapTileLayer) tiledMap.getLayers().get(0)).getTileHeight();
-		camera.position.set(mapWidth / 2, mapHeight / 2, 0);
-		camera.update();
-
-		tiledMapRenderer.setView(camera);
-		tiledMapRenderer.render();
-
-		spriteBatch.begin();
-		for (Enemy enemy : enemies) {
-			enemy.render(spriteBatch);
-		}
-		spriteBatch.end();
-
-		batch.setProjectionMatrix(camera.combined);
-		batch.begin();
-		player.render(batch);
-		for (Bomb bomb : bombs) {
-			bomb.render(batch);
-		}
-		batch.end();
-
-		shapeRenderer.setProjectionMatrix(camera.combined);
-		shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
-		shapeRenderer.setColor(Color.RED);
-		if (player.getBoundingBox() != null) {
-			shapeRenderer.rect(player.getBoundingBox().x, player.getBoundingBox().y,
-					player.getBoundingBox().width, player.getBoundingBox().height);
+		profiler.beginFrame();
+
+		// Run the simulation at a fixed rate, however many ticks this frame covers; each tick
+		// takes the input events that happened before the moment it simulates
+		useInput(playInput);
+		int ticks = clock.advance();
+		for (int i = 0; i < ticks && gameState == GameState.PLAYING; i++) {
+			profiler.begin(FrameProfiler.INPUT);
+			playInput.update(clock.getTickTime(i));
+			profiler.end(FrameProfiler.INPUT);
+			profiler.begin(FrameProfiler.UPDATE);
+			updateGame(clock.getStepSeconds());
+			profiler.end(FrameProfiler.UPDATE);
 		}
-		for (Enemy enemy : enemies) {
-			if (enemy.getBoundingBox() != null) {
-				shapeRenderer.rect(enemy.getBoundingBox().x, enemy.getBoundingBox().y,
-						enemy.getBoundingBox().width, enemy.getBoundingBox().height);
+		float alpha = clock.getAlpha();
+
+		// A little of the next level loads each frame
+		levelStreamer.update();
+
+		followPlayer(alpha);
+
+		profiler.begin(FrameProfiler.MAP);
+		levelStreamer.getRenderer().render(camera);
+		profiler.end(FrameProfiler.MAP);
+
+		profiler.begin(FrameProfiler.SPRITES);
+		worldRenderer.render(batch, camera, world, alpha);
+		profiler.end(FrameProfiler.SPRITES);
+
+		// Hitbox outlines are debugging aids, shown with the profiler
+		if (profiler.isEnabled()) {
+			shapeRenderer.setProjectionMatrix(camera.combined);
+			shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
+			shapeRenderer.setColor(Color.RED);
+			Player player = world.getPlayer();
+			if (player.getBoundingBox() != null) {
+				shapeRenderer.rect(player.getBoundingBox().x, player.getBoundingBox().y,
+						player.getBoundingBox().width, player.getBoundingBox().height);
 			}
+			EnemyStore enemies = world.getEnemies();
+			for (int i = 0; i < enemies.size; i++) {
+				EnemyType type = enemies.getType(i);
+				shapeRenderer.rect(enemies.getX(i), enemies.getY(i), type.width, type.height);
+			}
+			shapeRenderer.end();
 		}
-		shapeRenderer.end();
 
 		// Render UI elements (e.g., buttons, player lives)
+		profiler.begin(FrameProfiler.UI);
 		uiBatch.begin();
 		moveLeftButton.draw(uiBatch);
 		moveRightButton.draw(uiBatch);
@@ -462,25 +524,17 @@ public class MyGdxGame extends ApplicationAdapter {
 		placeBombButton.draw(uiBatch);
 		pauseButton.draw(uiBatch);
 
-		// Check for pause button press
-		boolean checkTouch = Gdx.input.isTouched();
-		int touchX = Gdx.input.getX();
-		int touchY = Gdx.input.getY();
-		pauseButton.update(checkTouch, touchX, touchY);
-
-		if (pauseButton.isDown) {
-			Gdx.app.log("Button", "Pause button clicked");
-			buttonClickSound.play();
-			gameState = GameState.PAUSED;
-		}
-
 		// Draw player lives (hearts)
-		for (int i = 0; i < player.getLives(); i++) {
+		for (int i = 0; i < world.getPlayer().getLives(); i++) {
 			float heartX = i * 150;
 			float heartY = Gdx.graphics.getHeight() - 150;
 			uiBatch.draw(heartTexture, heartX, heartY, 100, 100);
 		}
+		profiler.draw(uiBatch);
 		uiBatch.end();
+		profiler.end(FrameProfiler.UI);
+
+		profiler.endFrame();
 	}
 
 
@@ -489,20 +543,15 @@ public class MyGdxGame extends ApplicationAdapter {
 		Gdx.gl.glClearColor(0, 0, 0, 1);
 		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-		boolean checkTouch = Gdx.input.isTouched();
-		int touchX = Gdx.input.getX();
-		int touchY = Gdx.input.getY();
-
-		retryButton.update(checkTouch, touchX, touchY);
-		//menuButton.update(checkTouch, touchX, touchY);
+		useInput(gameOverInput).update(Long.MAX_VALUE);
 
 		uiBatch.begin();
 		retryButton.draw(uiBatch);
 		//menuButton.draw(uiBatch);
 		uiBatch.end();
 
-		if (retryButton.isDown) {
-			Gdx.app.log("Button", "Retry button clicked");
+		if (gameOverInput.wasPressed(retryButton)) {
+			EventLog.log(BUTTON_CLICKED, "Retry");
 			buttonClickSound.play();
 			newGame();
 		}
@@ -512,64 +561,44 @@ public class MyGdxGame extends ApplicationAdapter {
 		Gdx.gl.glClearColor(0, 0, 0, 1);
 		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-		boolean checkTouch = Gdx.input.isTouched();
-		int touchX = Gdx.input.getX();
-		int touchY = Gdx.input.getY();
-
-		retryButton.update(checkTouch, touchX, touchY);
-		menuButton.update(checkTouch, touchX, touchY);
+		useInput(winInput).update(Long.MAX_VALUE);
 
 		uiBatch.begin();
-		uiBatch.draw(winTexture, Gdx.graphics.getWidth() / 2 - winTexture.getWidth() / 2, Gdx.graphics.getHeight() / 2 - winTexture.getHeight() / 2 + 120);
+		uiBatch.draw(winTexture, Gdx.graphics.getWidth() / 2 - winTexture.getRegionWidth() / 2, Gdx.graphics.getHeight() / 2 - winTexture.getRegionHeight() / 2 + 120);
 		retryButton.draw(uiBatch);
 		menuButton.draw(uiBatch);
 		uiBatch.end();
 
-		if (retryButton.isDown) {
-			Gdx.app.log("Button", "Retry button clicked");
+		if (winInput.wasPressed(retryButton)) {
+			EventLog.log(BUTTON_CLICKED, "Retry");
 			buttonClickSound.play();
-			gameState = GameState.PLAYING;
+			setGameState(GameState.PLAYING);
 			newGame();
-		} else if (menuButton.isDown) {
-			Gdx.app.log("Button", "Menu button clicked");
+		} else if (winInput.wasPressed(menuButton)) {
+			EventLog.log(BUTTON_CLICKED, "Menu");
 			buttonClickSound.play();
-			gameState = GameState.MAIN_MENU;
+			setGameState(GameState.MAIN_MENU);
 		}
 	}
 
-	private void updateGame() {
-
-		if (gameState == GameState.PAUSED) {
-			// Check for touch input to resume the game
-			if (Gdx.input.isTouched()) {
-				gameState = GameState.PLAYING;
-			}
-			return; // Do nothing else if the game is paused
+	// Runs one tick with the buttons as playInput left them for it
+	private void updateGame(float delta) {
+		if (playInput.wasPressed(pauseButton)) {
+			EventLog.log(BUTTON_CLICKED, "Pause");
+			buttonClickSound.play();
+			setGameState(GameState.PAUSED);
+			return;
 		}
 
-		boolean checkTouch = Gdx.input.isTouched();
-		int touchX = Gdx.input.getX();
-		int touchY = Gdx.input.getY();
-
-		moveLeftButton.update(checkTouch, touchX, touchY);
-		moveRightButton.update(checkTouch, touchX, touchY);
-		moveDownButton.update(checkTouch, touchX, touchY);
-		moveUpButton.update(checkTouch, touchX, touchY);
-		placeBombButton.update(checkTouch, touchX, touchY);
-
-		float moveX = 0;
-		float moveY = 0;
-		if (Gdx.input.isKeyPressed(Input.Keys.LEFT) || moveLeftButton.isDown) {
-			moveLeftButton.isDown = true;
+		int moveX = 0;
+		int moveY = 0;
+		if (moveLeftButton.isDown) {
 			moveX = -1;
-		} else if (Gdx.input.isKeyPressed(Input.Keys.RIGHT) || moveRightButton.isDown) {
-			moveRightButton.isDown = true;
+		} else if (moveRightButton.isDown) {
 			moveX = 1;
-		} else if (Gdx.input.isKeyPressed(Input.Keys.DOWN) || moveDownButton.isDown) {
-			moveDownButton.isDown = true;
+		} else if (moveDownButton.isDown) {
 			moveY = -1;
-		} else if (Gdx.input.isKeyPressed(Input.Keys.UP) || moveUpButton.isDown) {
-			moveUpButton.isDown = true;
+		} else if (moveUpButton.isDown) {
 			moveY = 1;
 		}
 
@@ -577,131 +606,143 @@ public class MyGdxGame extends ApplicationAdapter {
 			movementSound.play();
 		}
 
-		player.setVelocity(moveX, moveY);
-
-		if (player.canMove()) {
-			TiledMapTileLayer tileLayer = (TiledMapTileLayer) tiledMap.getLayers().get("Collision");
-
-			if ((moveX != 0 || moveY != 0)
-					&& moveX + player.getPosition().x >= 0
-					&& moveX + player.getPosition().x < tileLayer.getWidth()
-					&& moveY + player.getPosition().y >= 0
-					&& moveY + player.getPosition().y < tileLayer.getHeight()) {
-
-				TiledMapTileLayer.Cell targetCell = tileLayer.getCell((int) (player.getPosition().x + moveX), (int) (player.getPosition().y + moveY));
-				if (targetCell == null) {
-					player.move((int) moveX, (int) moveY);
-				}
-			}
-		}
-
-		player.update(Gdx.graphics.getDeltaTime());
+		playerInput.set(moveX, moveY, placeBombButton.isDown);
+		replayRecorder.record(playerInput);
+		world.update(delta, playerInput);
+	}
 
-		for (Enemy enemy : enemies) {
-			Vector2 enemyPosition = enemy.getPosition();
-			enemy.update(elapsedTime);
 
-			// Check for collision using bounding boxes
-			if (player.getBoundingBox().overlaps(enemy.getBoundingBox())) {
-				player.handleCollision(enemy.getPosition());
-			}
-		}
 
-		if (placeBombButton.isDown && bombCooldown <= 0) {
-			placeBombSound.play();
-			Vector2 bombPosition = new Vector2(player.getPosition().x, player.getPosition().y);
-			TiledMapTileLayer collisionLayer = (TiledMapTileLayer) tiledMap.getLayers().get("Collision");
-			bombs.add(new Bomb(bombPosition, bombTexture, explosionTexture, BOMB_EXPLOSION_TIME, 0.5f, collisionLayer, this));
-			bombCooldown = BOMB_COOLDOWN_TIME;
-			placeBombButton.isDown = false;
+	// Hiding the overlay exports what it showed, so a run can be compared with other builds
+	private void toggleProfiler() {
+		if (profiler.isEnabled()) {
+			profiler.export();
 		}
+		profiler.toggle();
+	}
 
-		if (bombCooldown > 0) {
-			bombCooldown -= elapsedTime;
-		}
+	// Every match gets its own seed, recorded with its input so it can be played again headless
+	private void newGame() {
+		setGameState(GameState.PLAYING);
+		clock.reset();
+		long seed = MathUtils.random.nextLong();
+		world.reset(seed);
+		recordReplay(seed);
+	}
 
-		Iterator<Bomb> bombIterator = bombs.iterator();
-		while (bombIterator.hasNext()) {
-			Bomb bomb = bombIterator.next();
-			bomb.update(elapsedTime, (TiledMapTileLayer) tiledMap.getLayers().get("Maze"));
-			if (bomb.isFinished()) {
-				bombIterator.remove();
+	private void recordReplay(long seed) {
+		replayRecorder.end();
+		FileHandle file = Gdx.files.local(REPLAY_FILE);
+		try {
+			if (file.exists()) {
+				file.moveTo(Gdx.files.local(PREVIOUS_REPLAY_FILE));
 			}
+		} catch (GdxRuntimeException e) {
+			EventLog.log(REPLAY_NOT_KEPT, e);
 		}
+		replayRecorder.begin(file, levels.get(levelStreamer.getLevel()), seed, world.getDestroyedCells());
+	}
 
-		// Check if all enemies are killed
-		if (enemies.size == 0) {
-			// Check the map name property
-			String mapName = tiledMap.getProperties().get("mapName", String.class);
-			if ("secondMap".equals(mapName)) {
-				gameState = GameState.WIN;
-			} else if ("firstMap".equals(mapName)) {
-				newMap("map/secondMap.tmx");
-			}
-		}
 
-		if (player.getCooldown() > 0.0f)
-			player.reduceCooldown(elapsedTime);
+	private void setupCamera() {
+		TiledMapTileLayer layer = (TiledMapTileLayer) tiledMap.getLayers().get(0);
+		mapWidth = layer.getTileWidth() * layer.getWidth();
+		mapHeight = layer.getTileHeight() * layer.getHeight();
+		camera.zoom = viewZoom(tiledMap, camera.viewportWidth, camera.viewportHeight);
+		camera.position.set(mapWidth / 2, mapHeight / 2, 0);
+		camera.update();
 	}
 
+	// Small maps fit on screen whole; bigger ones are shown VIEW_TILES high and scroll
+	static float viewZoom(TiledMap map, float viewportWidth, float viewportHeight) {
+		TiledMapTileLayer layer = (TiledMapTileLayer) map.getLayers().get(0);
+		float fitZoom = Math.max(layer.getTileWidth() * layer.getWidth() / viewportWidth,
+				layer.getTileHeight() * layer.getHeight() / viewportHeight);
+		float scrollZoom = VIEW_TILES * layer.getTileHeight() / viewportHeight;
+		return Math.min(fitZoom, scrollZoom);
+	}
 
-
-	private void newGame() {
-		gameState = GameState.PLAYING;
-		lastTime = System.currentTimeMillis();
-		elapsedTime = 0.0f;
-		player.setPosition(new Vector2(1, 18));
-		player.lives = 3; // Reset player lives
-		movementCooldown = 0.0f;
-		bombs.clear();
-		bombCooldown = 0;
-		enemies.clear();
-		spawnEnemies();
+	// Centers the camera on the player, but never past the edge of the map
+	private void followPlayer(float alpha) {
+		Player player = world.getPlayer();
+		Vector2 position = player.getPosition();
+		Vector2 previousPosition = player.getPreviousPosition();
+		float x = (previousPosition.x + (position.x - previousPosition.x) * alpha + 0.5f) * 32;
+		float y = (previousPosition.y + (position.y - previousPosition.y) * alpha + 0.5f) * 32;
+		camera.position.set(clampToMap(x, camera.viewportWidth * camera.zoom, mapWidth),
+				clampToMap(y, camera.viewportHeight * camera.zoom, mapHeight), 0);
+		camera.update();
 	}
 
+	static float clampToMap(float center, float viewSize, float mapSize) {
+		if (viewSize >= mapSize) {
+			return mapSize / 2;
+		}
+		return Math.max(viewSize / 2, Math.min(center, mapSize - viewSize / 2));
+	}
 
-	private void newMap(String mapPath){
+	// The next level was preloaded during this one, so this only swaps it in
+	private void nextLevel() {
+		levelStreamer.advance();
+		tiledMap = levelStreamer.getMap();
+		setupCamera();
+		world.setMap(tiledMap);
 		newGame();
-		if (tiledMap != null) {
-			tiledMap.dispose();
+	}
+
+	@Override
+	public void pause() {
+		// The app may not come back from the background
+		replayRecorder.flush();
+		if (profiler.isEnabled()) {
+			profiler.export();
 		}
-		tiledMap = new TmxMapLoader().load(mapPath);
-		tiledMapRenderer = new OrthogonalTiledMapRenderer(tiledMap);
 	}
 
 	@Override
 	public void dispose() {
-		buttonSquareTexture.dispose();
-		buttonSquareDownTexture.dispose();
-		buttonLongTexture.dispose();
-		buttonLongDownTexture.dispose();
-		playButtonTexture.dispose();
-		exitButtonTexture.dispose();
-		retryButtonTexture.dispose();
-		menuButtonTexture.dispose();
-		winTexture.dispose();
-		heartTexture.dispose();
-		tiledMap.dispose();
-		bombTexture.dispose();
-		explosionTexture.dispose();
-		backgroundMusic.dispose();
-		movementSound.dispose();
-		placeBombSound.dispose();
-		buttonClickSound.dispose();
-		pauseButtonTexture.dispose();
+		replayRecorder.end();
+		// Textures, sounds, music and the maps all belong to the asset manager
+		if (levelStreamer != null) {
+			levelStreamer.dispose();
+		}
+		assets.dispose();
+		batch.dispose();
+		uiBatch.dispose();
+		shapeRenderer.dispose();
+		profiler.dispose();
+		EventLog.stop();
 	}
 
-	public void killPlayer() {
-		gameState = GameState.GAME_OVER;
-		player.setPosition(new Vector2(1, 18));
+	@Override
+	public void onBombPlaced(Bomb bomb) {
+		placeBombSound.play();
 	}
 
-	public void removeEnemy(Enemy enemy) {
-		enemies.removeValue(enemy, true);
+	@Override
+	public void onBombExploded(Bomb bomb) {
+		explosionSound.play();
 	}
 
-	public Array<Enemy> getEnemies() {
-		return enemies;
+	@Override
+	public void onCellDestroyed(int tileX, int tileY) {
+		levelStreamer.getRenderer().invalidate(tileX, tileY);
+	}
+
+	@Override
+	public void onPlayerKilled() {
+		replayRecorder.end();
+		setGameState(GameState.GAME_OVER);
+	}
+
+	@Override
+	public void onLevelCleared(String mapName) {
+		if (levelStreamer.hasNextLevel()) {
+			nextLevel();
+		} else {
+			replayRecorder.end();
+			setGameState(GameState.WIN);
+		}
 	}
 
-}
+}
\ No newline at end of file
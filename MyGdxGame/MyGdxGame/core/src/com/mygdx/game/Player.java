@@ -1,49 +1,21 @@
 package com.mygdx.game;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 
 public class Player implements CollidableObject {
     private Vector2 position;
+    private Vector2 previousPosition;
     private Vector2 velocity;
     private float movementCooldown;
-    private MyGdxGame game;
-
-    private Texture deathFront;
-    private Texture idleBack;
-    private Texture idleFront;
-    private Texture idleLeft;
-    private Texture idleRight;
-    private Texture takeOffFront;
-    private Texture walkBack;
-    private Texture walkFront;
-    private Texture walkLeft;
-    private Texture walkRight;
-    private Texture winFront;
-
-    private Animation<TextureRegion> walkAnimationFront;
-    private Animation<TextureRegion> walkAnimationBack;
-    private Animation<TextureRegion> walkAnimationLeft;
-    private Animation<TextureRegion> walkAnimationRight;
-    private Animation<TextureRegion> idleAnimationFront;
-    private Animation<TextureRegion> idleAnimationBack;
-    private Animation<TextureRegion> idleAnimationLeft;
-    private Animation<TextureRegion> idleAnimationRight;
-    private Animation<TextureRegion> winAnimationFront;
-    private Animation<TextureRegion> takeOffAnimationFront;
-
-    private Animation<TextureRegion> deathAnimationFront;
+    private GameWorld world;
 
     private float stateTime;
 
     private float width;
     private float height;
     private Rectangle boundingBox;
+    private final Rectangle worldBoundingBox = new Rectangle();
 
     public enum State {
         IDLE, WALKING, TAKING_OFF, WINNING, DYING, DEAD
@@ -54,13 +26,15 @@ public class Player implements CollidableObject {
 
     private float bombCooldown;
     private static final float BOMB_COOLDOWN_TIME = 1.0f; // Cooldown time in seconds
+    private int bombRadius = GameWorld.BOMB_RADIUS;
 
     int lives;
 
     private float frame = 0;
 
-    public Player(Vector2 startPosition, MyGdxGame game) {
+    public Player(Vector2 startPosition, GameWorld world) {
         this.position = startPosition;
+        this.previousPosition = new Vector2(startPosition);
         this.velocity = new Vector2(0, 0);
         this.movementCooldown = 0;
         this.bombCooldown = 0;
@@ -68,38 +42,7 @@ public class Player implements CollidableObject {
         this.width = 32;
         this.height = 32;
         this.boundingBox = new Rectangle(position.x, position.y, width, height); // No offset
-        this.game = game; // Initialize the game reference
-
-        // Load player textures
-        try {
-            deathFront = new Texture("character/death-front.png");
-            idleBack = new Texture("character/idle-back.png");
-            idleFront = new Texture("character/idle-front.png");
-            idleLeft = new Texture("character/idle-left.png");
-            idleRight = new Texture("character/idle-right.png");
-            takeOffFront = new Texture("character/take-off-front.png");
-            walkBack = new Texture("character/walk-back.png");
-            walkFront = new Texture("character/walk-front.png");
-            walkLeft = new Texture("character/walk-left.png");
-            walkRight = new Texture("character/walk-right.png");
-            winFront = new Texture("character/win-front.png");
-        } catch (Exception e) {
-            Gdx.app.log("Player", "Error loading textures: " + e.getMessage());
-            e.printStackTrace();
-        }
-
-        // Create animations
-        walkAnimationFront = createAnimation(walkFront, 4, 1);
-        walkAnimationBack = createAnimation(walkBack, 4, 1);
-        walkAnimationLeft = createAnimation(walkLeft, 4, 1);
-        walkAnimationRight = createAnimation(walkRight, 4, 1);
-        idleAnimationFront = createAnimation(idleFront, 4, 1);
-        idleAnimationBack = createAnimation(idleBack, 4, 1);
-        idleAnimationLeft = createAnimation(idleLeft, 4, 1);
-        idleAnimationRight = createAnimation(idleRight, 4, 1);
-        winAnimationFront = createAnimation(winFront, 2, 1);
-        takeOffAnimationFront = createAnimation(takeOffFront, 2, 1);
-        deathAnimationFront = createAnimation(deathFront, 5, 1);
+        this.world = world; // Initialize the world reference
 
         stateTime = 0f;
 
@@ -107,28 +50,19 @@ public class Player implements CollidableObject {
         previousState = State.IDLE;
     }
 
-
-
-    private Animation<TextureRegion> createAnimation(Texture texture, int frameCols, int frameRows) {
-        TextureRegion[][] tmp = TextureRegion.split(texture, texture.getWidth() / frameCols, texture.getHeight() / frameRows);
-        TextureRegion[] frames = new TextureRegion[frameCols * frameRows];
-        int index = 0;
-        for (int i = 0; i < frameRows; i++) {
-            for (int j = 0; j < frameCols; j++) {
-                frames[index++] = tmp[i][j];
-            }
-        }
-        return new Animation<TextureRegion>(0.1f, frames);
-    }
-
     public void move(int moveX, int moveY) {
         this.position.add(moveX, moveY);
-        this.movementCooldown = MyGdxGame.MOVEMENT_COOLDOWN_TIME;
+        this.movementCooldown = GameWorld.MOVEMENT_COOLDOWN_TIME;
         this.boundingBox.setPosition(position.x, position.y); // Update bounding box position
     }
 
     public void setPosition(Vector2 newPosition) {
-        this.position = newPosition;
+        setPosition(newPosition.x, newPosition.y);
+    }
+
+    public void setPosition(float x, float y) {
+        this.position.set(x, y);
+        this.previousPosition.set(x, y); // Don't interpolate across a teleport
         this.boundingBox.setPosition(position.x, position.y); // Update bounding box position
     }
 
@@ -136,6 +70,15 @@ public class Player implements CollidableObject {
         return position;
     }
 
+    public Vector2 getPreviousPosition() {
+        return previousPosition;
+    }
+
+    // Called at the start of every tick so rendering can blend between ticks
+    public void storePreviousPosition() {
+        previousPosition.set(position);
+    }
+
     @Override
     public float getRadius() {
         return Math.max(width, height) / 2;
@@ -165,47 +108,31 @@ public class Player implements CollidableObject {
         this.bombCooldown = BOMB_COOLDOWN_TIME;
     }
 
-    public void render(SpriteBatch batch) {
-        if(!(getFrame() == null)) {
-            TextureRegion currentFrame = getFrame();
-            batch.draw(currentFrame, position.x * 32, position.y * 32, 32, 32);
-        }
+    public int getBombRadius() {
+        return bombRadius;
     }
 
-    private TextureRegion getFrame() {
-        TextureRegion region;
-
-        switch (currentState) {
-            case WALKING:
-                if (velocity.y > 0) {
-                    region = walkAnimationBack.getKeyFrame(stateTime, true);
-                } else if (velocity.y < 0) {
-                    region = walkAnimationFront.getKeyFrame(stateTime, true);
-                } else if (velocity.x < 0) {
-                    region = walkAnimationLeft.getKeyFrame(stateTime, true);
-                } else {
-                    region = walkAnimationRight.getKeyFrame(stateTime, true);
-                }
-                break;
-            case DYING:
-                region = deathAnimationFront.getKeyFrame(stateTime, true);
-                break;
-            case DEAD:
-                region = null;
-                break;
-            case IDLE:
-            default:
-                region = idleAnimationFront.getKeyFrame(stateTime, true); // Default idle animation
-                break;
-        }
-
-        return region;
+    // A power-up: the player's bombs reach one tile further, up to GameWorld.MAX_BOMB_RADIUS
+    public void increaseBombRadius() {
+        bombRadius = Math.min(bombRadius + 1, GameWorld.MAX_BOMB_RADIUS);
     }
 
     public void setVelocity(float x, float y) {
         velocity.set(x, y);
     }
 
+    public Vector2 getVelocity() {
+        return velocity;
+    }
+
+    public State getState() {
+        return currentState;
+    }
+
+    public float getStateTime() {
+        return stateTime;
+    }
+
     public void update(float deltaTime) {
         stateTime += deltaTime;
         if (bombCooldown > 0) {
@@ -224,7 +151,7 @@ public class Player implements CollidableObject {
             respawn();
         }
         if (lives <= 0) {
-            game.killPlayer(); // Call the method to handle game over
+            world.killPlayer(); // Call the method to handle game over
         }
 
         // Update state based on movement
@@ -245,23 +172,10 @@ public class Player implements CollidableObject {
         return lives;
     }
 
-    public void dispose() {
-        deathFront.dispose();
-        idleBack.dispose();
-        idleFront.dispose();
-        idleLeft.dispose();
-        idleRight.dispose();
-        takeOffFront.dispose();
-        walkBack.dispose();
-        walkFront.dispose();
-        walkLeft.dispose();
-        walkRight.dispose();
-        winFront.dispose();
-    }
-
+    // Returns a shared rectangle in world units; it is overwritten by the next call
     @Override
     public Rectangle getBoundingBox() {
-        return new Rectangle(boundingBox.x * 32, boundingBox.y * 32, boundingBox.width, boundingBox.height);
+        return worldBoundingBox.set(boundingBox.x * 32, boundingBox.y * 32, boundingBox.width, boundingBox.height);
     }
 
     @Override
@@ -275,7 +189,7 @@ public class Player implements CollidableObject {
             // Decrease lives
             lives--;
             if (lives <= 0) {
-                game.killPlayer(); // Call the method to handle game over
+                world.killPlayer(); // Call the method to handle game over
             } else {
                 respawn(); // Reset player position if they still have lives
             }
@@ -283,8 +197,17 @@ public class Player implements CollidableObject {
     }
 
 
+    // Puts the player back as at the start of a level, so every match starts from the same state
+    public void reset(int lives) {
+        respawn();
+        velocity.set(0, 0);
+        frame = 0;
+        this.lives = lives;
+        this.bombRadius = GameWorld.BOMB_RADIUS;
+    }
+
     public void respawn(){
-        setPosition(new Vector2(1, 18));
+        setPosition(GameWorld.PLAYER_START_X, GameWorld.PLAYER_START_Y);
         stateTime = 0f;
         currentState = State.IDLE;
         previousState = State.IDLE;
@@ -0,0 +1,19 @@
+package com.mygdx.game;
+
+// What the player asked for during one simulation tick. Filled from touch/keyboard by
+// MyGdxGame, or directly by the headless runner and benchmarks.
+public class PlayerInput {
+    public int moveX;
+    public int moveY;
+    public boolean placeBomb;
+
+    public void set(int moveX, int moveY, boolean placeBomb) {
+        this.moveX = moveX;
+        this.moveY = moveY;
+        this.placeBomb = placeBomb;
+    }
+
+    public void clear() {
+        set(0, 0, false);
+    }
+}
@@ -0,0 +1,108 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+// Textures and animations for the player, kept out of Player so the simulation can run without a GL context
+public class PlayerRenderer {
+    private Animation<TextureRegion> walkAnimationFront;
+    private Animation<TextureRegion> walkAnimationBack;
+    private Animation<TextureRegion> walkAnimationLeft;
+    private Animation<TextureRegion> walkAnimationRight;
+    private Animation<TextureRegion> idleAnimationFront;
+    private Animation<TextureRegion> idleAnimationBack;
+    private Animation<TextureRegion> idleAnimationLeft;
+    private Animation<TextureRegion> idleAnimationRight;
+    private Animation<TextureRegion> winAnimationFront;
+    private Animation<TextureRegion> takeOffAnimationFront;
+
+    private Animation<TextureRegion> deathAnimationFront;
+
+    static final String ATLAS = "atlas/characters.atlas";
+
+    // Queues the player sheets; the asset manager owns and disposes them
+    public static void queue(AssetManager assets) {
+        assets.load(ATLAS, TextureAtlas.class);
+    }
+
+    public PlayerRenderer(AssetManager assets) {
+        TextureAtlas atlas = assets.get(ATLAS, TextureAtlas.class);
+
+        // Create animations
+        walkAnimationFront = createAnimation(atlas.findRegion("walk-front"), 4, 1);
+        walkAnimationBack = createAnimation(atlas.findRegion("walk-back"), 4, 1);
+        walkAnimationLeft = createAnimation(atlas.findRegion("walk-left"), 4, 1);
+        walkAnimationRight = createAnimation(atlas.findRegion("walk-right"), 4, 1);
+        idleAnimationFront = createAnimation(atlas.findRegion("idle-front"), 4, 1);
+        idleAnimationBack = createAnimation(atlas.findRegion("idle-back"), 4, 1);
+        idleAnimationLeft = createAnimation(atlas.findRegion("idle-left"), 4, 1);
+        idleAnimationRight = createAnimation(atlas.findRegion("idle-right"), 4, 1);
+        winAnimationFront = createAnimation(atlas.findRegion("win-front"), 2, 1);
+        takeOffAnimationFront = createAnimation(atlas.findRegion("take-off-front"), 2, 1);
+        deathAnimationFront = createAnimation(atlas.findRegion("death-front"), 5, 1);
+    }
+
+    private Animation<TextureRegion> createAnimation(TextureRegion sheet, int frameCols, int frameRows) {
+        TextureRegion[][] tmp = sheet.split(sheet.getRegionWidth() / frameCols, sheet.getRegionHeight() / frameRows);
+        TextureRegion[] frames = new TextureRegion[frameCols * frameRows];
+        int index = 0;
+        for (int i = 0; i < frameRows; i++) {
+            for (int j = 0; j < frameCols; j++) {
+                frames[index++] = tmp[i][j];
+            }
+        }
+        return new Animation<TextureRegion>(0.1f, frames);
+    }
+
+    public void render(SpriteBatch batch, Player player, float alpha, Rectangle view) {
+        Vector2 position = player.getPosition();
+        Vector2 previousPosition = player.getPreviousPosition();
+        float x = (previousPosition.x + (position.x - previousPosition.x) * alpha) * 32;
+        float y = (previousPosition.y + (position.y - previousPosition.y) * alpha) * 32;
+        if (!WorldRenderer.isVisible(view, x, y, 32, 32)) {
+            return;
+        }
+
+        TextureRegion currentFrame = getFrame(player);
+        if (currentFrame != null) {
+            batch.draw(currentFrame, x, y, 32, 32);
+        }
+    }
+
+    private TextureRegion getFrame(Player player) {
+        TextureRegion region;
+        Vector2 velocity = player.getVelocity();
+        float stateTime = player.getStateTime();
+
+        switch (player.getState()) {
+            case WALKING:
+                if (velocity.y > 0) {
+                    region = walkAnimationBack.getKeyFrame(stateTime, true);
+                } else if (velocity.y < 0) {
+                    region = walkAnimationFront.getKeyFrame(stateTime, true);
+                } else if (velocity.x < 0) {
+                    region = walkAnimationLeft.getKeyFrame(stateTime, true);
+                } else {
+                    region = walkAnimationRight.getKeyFrame(stateTime, true);
+                }
+                break;
+            case DYING:
+                region = deathAnimationFront.getKeyFrame(stateTime, true);
+                break;
+            case DEAD:
+                region = null;
+                break;
+            case IDLE:
+            default:
+                region = idleAnimationFront.getKeyFrame(stateTime, true); // Default idle animation
+                break;
+        }
+
+        return region;
+    }
+}
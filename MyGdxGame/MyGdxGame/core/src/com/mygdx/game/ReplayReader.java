@@ -0,0 +1,127 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Reads a match written by ReplayRecorder (the layout is described there) and hands out its
+// input one tick at a time.
+public class ReplayReader {
+    private final ByteBuffer buffer;
+    private final String map;
+    private final long seed;
+    private final int tickRate;
+    private final IntArray destroyedCells = new IntArray();
+    private final int framesStart;
+    private final int tickCount;
+
+    // Replaying state
+    private int tick;
+    private int input;
+    private int nextFrameTick;
+    private int nextInput;
+
+    public ReplayReader(FileHandle file) {
+        ByteBuffer buffer;
+        try {
+            buffer = file.map();
+        } catch (GdxRuntimeException e) {
+            buffer = ByteBuffer.wrap(file.readBytes());
+        }
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        this.buffer = buffer;
+
+        if (buffer.getInt() != ReplayRecorder.MAGIC) {
+            throw new GdxRuntimeException("Not a replay: " + file);
+        }
+        int version = buffer.getShort();
+        if (version != ReplayRecorder.VERSION) {
+            throw new GdxRuntimeException("Replay " + file + " has version " + version + ", expected " + ReplayRecorder.VERSION);
+        }
+        tickRate = buffer.getShort();
+        byte[] path = new byte[buffer.getShort()];
+        buffer.get(path);
+        map = new String(path, ReplayRecorder.UTF8);
+        seed = buffer.getLong();
+
+        int cellCount = getVarint();
+        int cell = 0;
+        for (int i = 0; i < cellCount; i++) {
+            cell += getVarint();
+            destroyedCells.add(cell);
+        }
+        framesStart = buffer.position();
+
+        // Walk the frames once for the length of the match
+        int ticks = 0;
+        int value;
+        do {
+            ticks += getVarint();
+            value = buffer.get() & 0xFF;
+        } while (value != ReplayRecorder.END);
+        tickCount = ticks;
+        rewind();
+    }
+
+    // Goes back to the first tick
+    public void rewind() {
+        buffer.position(framesStart);
+        tick = 0;
+        input = ReplayRecorder.NO_INPUT;
+        readFrame(0);
+    }
+
+    // Fills in the input of the next tick. Returns false once the match is over.
+    public boolean next(PlayerInput playerInput) {
+        if (tick >= tickCount) return false;
+        while (tick == nextFrameTick && nextInput != ReplayRecorder.END) {
+            input = nextInput;
+            readFrame(tick);
+        }
+        playerInput.set((input & 3) - 1, (input >> 2 & 3) - 1, (input & 1 << 4) != 0);
+        tick++;
+        return true;
+    }
+
+    private void readFrame(int fromTick) {
+        nextFrameTick = fromTick + getVarint();
+        nextInput = buffer.get() & 0xFF;
+    }
+
+    private int getVarint() {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    public String getMap() {
+        return map;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    // As x + y * width, in ascending order
+    public IntArray getDestroyedCells() {
+        return destroyedCells;
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+}
@@ -0,0 +1,166 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+// Writes everything needed to play a match again: the map, the seed, the cells already
+// destroyed when it started and the input of every tick. Input is only written when it changes,
+// so a match costs a couple of bytes per key press or release. ReplayReader reads it back.
+//
+// Layout, big-endian; varints are unsigned LEB128:
+//   int magic, short version, short ticks per second
+//   short byte count + UTF-8 map path, long seed
+//   varint destroyed cell count, then per cell the varint gap from the previous cell index
+//     (x + y * width, ascending)
+//   input frames: varint ticks since the previous frame (or the start), byte input; the input
+//     holds from that tick until the next frame. Before the first frame there is no input.
+//   a last frame with the byte END, whose gap runs to the end of the match
+public class ReplayRecorder {
+    public static final int MAGIC = 0x4252504C; // "BRPL"
+    public static final int VERSION = 1;
+    public static final int END = 0xFF;
+    // Input bits: moveX + 1 and moveY + 1 take two bits each, then the bomb button
+    public static final int NO_INPUT = encode(0, 0, false);
+
+    static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final EventLog.Message RECORDING_STOPPED = new EventLog.Message(EventLog.ERROR, "Replay", "Recording stopped");
+    private static final EventLog.Message FINISH_FAILED = new EventLog.Message(EventLog.ERROR, "Replay", "Could not finish the replay");
+    private static final int MAX_FRAME_BYTES = 6; // A five-byte varint and the input
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+    private WritableByteChannel channel;
+    private int tick;
+    private int lastInput;
+    private int lastFrameTick;
+
+    public static int encode(int moveX, int moveY, boolean placeBomb) {
+        return (moveX + 1) | (moveY + 1) << 2 | (placeBomb ? 1 << 4 : 0);
+    }
+
+    // Starts recording a match into the file, ending any match still being recorded. A file
+    // that can't be written is logged and the match goes unrecorded.
+    public void begin(FileHandle file, String map, long seed, IntArray destroyedCells) {
+        end();
+        try {
+            OutputStream out = file.write(false);
+            // Local and external files give a FileOutputStream, whose channel writes straight to the file
+            channel = out instanceof FileOutputStream ? ((FileOutputStream) out).getChannel() : Channels.newChannel(out);
+            buffer.clear();
+            buffer.putInt(MAGIC);
+            buffer.putShort((short) VERSION);
+            buffer.putShort((short) MyGdxGame.TICK_RATE);
+            byte[] path = map.getBytes(UTF8);
+            buffer.putShort((short) path.length);
+            buffer.put(path);
+            buffer.putLong(seed);
+
+            int[] cells = destroyedCells.toArray();
+            Arrays.sort(cells);
+            putVarint(cells.length);
+            int previous = 0;
+            for (int cell : cells) {
+                ensureRoom();
+                putVarint(cell - previous);
+                previous = cell;
+            }
+        } catch (IOException | GdxRuntimeException e) {
+            fail(e);
+            return;
+        }
+        tick = 0;
+        lastInput = NO_INPUT;
+        lastFrameTick = 0;
+    }
+
+    // Call once per tick, with the input the tick runs with
+    public void record(PlayerInput input) {
+        if (channel == null) return;
+        int value = encode(input.moveX, input.moveY, input.placeBomb);
+        if (value != lastInput) {
+            try {
+                ensureRoom();
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+            putVarint(tick - lastFrameTick);
+            buffer.put((byte) value);
+            lastInput = value;
+            lastFrameTick = tick;
+        }
+        tick++;
+    }
+
+    // Writes out what is buffered, e.g. when the app may be killed in the background
+    public void flush() {
+        if (channel == null) return;
+        try {
+            drain();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // Finishes the match being recorded, if any
+    public void end() {
+        if (channel == null) return;
+        try {
+            ensureRoom();
+            putVarint(tick - lastFrameTick);
+            buffer.put((byte) END);
+            drain();
+            channel.close();
+        } catch (IOException e) {
+            EventLog.log(FINISH_FAILED, e);
+        }
+        channel = null;
+    }
+
+    public boolean isRecording() {
+        return channel != null;
+    }
+
+    private void ensureRoom() throws IOException {
+        if (buffer.remaining() < MAX_FRAME_BYTES) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void putVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void fail(Exception e) {
+        EventLog.log(RECORDING_STOPPED, e);
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+        channel = null;
+    }
+}
@@ -0,0 +1,95 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+// Tile-aligned buckets of enemies, so the player and blast cells only test the enemies next to
+// them instead of all of them. Each enemy is filed under the cell holding the lower-left corner
+// of its bounding box, as linked lists threaded through int arrays (no per-tick allocation).
+// Bounding boxes must be no bigger than one cell for queries to find every overlap.
+public class SpatialHash {
+    private static final int NONE = -1;
+
+    private final int width;
+    private final int height;
+    private final float cellWidth;
+    private final float cellHeight;
+
+    // First enemy index in each cell and the next enemy in the same cell
+    private final int[] heads;
+    private int[] next = new int[16];
+    // Cell each enemy was filed under, so the next rebuild only clears cells that were used
+    private int[] cells = new int[16];
+    private int count;
+
+    private EnemyStore enemies;
+
+    public SpatialHash(int width, int height, float cellWidth, float cellHeight) {
+        this.width = width;
+        this.height = height;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.heads = new int[width * height];
+        Arrays.fill(heads, NONE);
+    }
+
+    // Refiles every enemy; call after enemies move and before querying
+    public void rebuild(EnemyStore enemies) {
+        for (int i = 0; i < count; i++) {
+            heads[cells[i]] = NONE;
+        }
+
+        this.enemies = enemies;
+        count = enemies.size;
+        if (next.length < count) {
+            next = new int[Math.max(count, next.length * 2)];
+            cells = new int[next.length];
+        }
+
+        for (int i = 0; i < count; i++) {
+            int cellX = clampX((int) Math.floor(enemies.getX(i) / cellWidth));
+            int cellY = clampY((int) Math.floor(enemies.getY(i) / cellHeight));
+            int cell = cellX + cellY * width;
+            cells[i] = cell;
+            next[i] = heads[cell];
+            heads[cell] = i;
+        }
+    }
+
+    // Fills result with the indices of the enemies whose bounding boxes overlap the area
+    public void query(Rectangle area, IntArray result) {
+        result.clear();
+        if (count == 0) return;
+        // Room for every enemy, so a crowd on one cell never grows the result mid-match
+        int[] items = result.ensureCapacity(count);
+        int found = 0;
+
+        // An enemy filed one cell down or left can still reach into the area
+        int minX = clampX((int) Math.floor(area.x / cellWidth) - 1);
+        int minY = clampY((int) Math.floor(area.y / cellHeight) - 1);
+        int maxX = clampX((int) Math.floor((area.x + area.width) / cellWidth));
+        int maxY = clampY((int) Math.floor((area.y + area.height) / cellHeight));
+
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                for (int i = heads[x + y * width]; i != NONE; i = next[i]) {
+                    if (enemies.overlaps(i, area)) {
+                        items[found++] = i;
+                    }
+                }
+            }
+        }
+        result.size = found;
+    }
+
+    private int clampX(int x) {
+        return MathUtils.clamp(x, 0, width - 1);
+    }
+
+    private int clampY(int y) {
+        return MathUtils.clamp(y, 0, height - 1);
+    }
+}
@@ -0,0 +1,121 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+// Releases enemies from the spawn points in the map's "Spawns" object layer. Every object of
+// type "enemy" is a spawn point; its "wave" property (default 0) says which wave it belongs to
+// and "count" (default 1) how many enemies it releases. Wave n goes out n * "waveInterval"
+// seconds into the level, a map property (default 10). At most "maxEnemies" enemies, another
+// map property (default no limit), are alive at once; the rest wait until there is room. The
+// "enemyType" property names the EnemyType to spawn (default the first one).
+public class Spawner {
+    public static final String LAYER = "Spawns";
+    public static final String ENEMY = "enemy";
+    private static final float DEFAULT_WAVE_INTERVAL = 10; // Seconds
+
+    private final IntArray pointX = new IntArray();
+    private final IntArray pointY = new IntArray();
+    private final IntArray pointWave = new IntArray();
+    private final IntArray pointCount = new IntArray();
+    private final Array<EnemyType> pointType = new Array<>();
+    // Enemies each spawn point still has to release
+    private int[] pending = new int[0];
+    private int pendingTotal;
+
+    private int waveCount;
+    private float waveInterval;
+    private int maxEnemies;
+    private int totalEnemies;
+
+    private int nextWave;
+    private float time;
+
+    public void setMap(TiledMap map, Array<EnemyType> types) {
+        pointX.clear();
+        pointY.clear();
+        pointWave.clear();
+        pointCount.clear();
+        pointType.clear();
+        waveCount = 0;
+        totalEnemies = 0;
+
+        MapProperties properties = map.getProperties();
+        float tileWidth = number(properties, "tilewidth", 32);
+        float tileHeight = number(properties, "tileheight", 32);
+        waveInterval = number(properties, "waveInterval", DEFAULT_WAVE_INTERVAL);
+        maxEnemies = (int) number(properties, "maxEnemies", Integer.MAX_VALUE);
+
+        MapLayer layer = map.getLayers().get(LAYER);
+        if (layer != null) {
+            for (MapObject object : layer.getObjects()) {
+                MapProperties spawn = object.getProperties();
+                if (!ENEMY.equals(spawn.get("type", object.getName(), String.class))) continue;
+                // The tile under the object's centre, so objects need not sit exactly on the grid
+                pointX.add((int) ((number(spawn, "x", 0) + number(spawn, "width", 0) / 2) / tileWidth));
+                pointY.add((int) ((number(spawn, "y", 0) + number(spawn, "height", 0) / 2) / tileHeight));
+                int wave = (int) number(spawn, "wave", 0);
+                int count = (int) number(spawn, "count", 1);
+                pointWave.add(wave);
+                pointCount.add(count);
+                String type = spawn.get("enemyType", String.class);
+                pointType.add(type == null ? types.first() : EnemyType.find(types, type));
+                waveCount = Math.max(waveCount, wave + 1);
+                totalEnemies += count;
+            }
+        }
+        pending = new int[pointX.size];
+        reset();
+    }
+
+    public void reset() {
+        nextWave = 0;
+        time = 0;
+        pendingTotal = 0;
+        Arrays.fill(pending, 0);
+    }
+
+    // Queues the waves that are due and spawns as many waiting enemies as there is room for
+    public void update(float delta, GameWorld world) {
+        time += delta;
+        while (nextWave < waveCount && time >= nextWave * waveInterval) {
+            for (int i = 0; i < pointWave.size; i++) {
+                if (pointWave.get(i) == nextWave) {
+                    pending[i] += pointCount.get(i);
+                    pendingTotal += pointCount.get(i);
+                }
+            }
+            nextWave++;
+        }
+
+        for (int i = 0; i < pending.length && pendingTotal > 0; i++) {
+            while (pending[i] > 0 && world.getEnemies().size < maxEnemies) {
+                world.spawnEnemy(pointType.get(i), pointX.get(i), pointY.get(i));
+                pending[i]--;
+                pendingTotal--;
+            }
+        }
+    }
+
+    // True once every wave is out and nothing is waiting to spawn
+    public boolean isFinished() {
+        return nextWave >= waveCount && pendingTotal == 0;
+    }
+
+    // The most enemies that can be alive at once on this map
+    public int getPeakEnemies() {
+        return Math.min(totalEnemies, maxEnemies);
+    }
+
+    // Tiled stores whole numbers as int and the rest as float, so accept either
+    private static float number(MapProperties properties, String key, float defaultValue) {
+        Object value = properties.get(key);
+        return value instanceof Number ? ((Number) value).floatValue() : defaultValue;
+    }
+}
@@ -0,0 +1,171 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.IntArray;
+
+// One byte of flags per cell, built from the Maze and Collision layers when a map is set, so
+// collision and blast checks are a single array read instead of getCell().getTile() chains.
+// Tiles opt in through their Tiled properties: "destructible" and "blocksBlast" (both bool).
+public class TileGrid {
+    public static final int SOLID = 1;          // Something on the Collision layer
+    public static final int DESTRUCTIBLE = 2;   // A blast clears the cell
+    public static final int BLOCKS_BLAST = 4;   // A blast stops before the cell
+    public static final int BOMB = 8;           // A bomb is ticking on the cell
+
+    // Up, right, down, left
+    public static final int[] DX = {0, 1, 0, -1};
+    public static final int[] DY = {1, 0, -1, 0};
+
+    // Everything outside the map behaves like an indestructible wall
+    private static final int OUT_OF_BOUNDS = SOLID | BLOCKS_BLAST;
+
+    private final TiledMapTileLayer mazeLayer;
+    private final TiledMapTileLayer collisionLayer;
+    private final int width;
+    private final int height;
+    private final float tileWidth;
+    private final float tileHeight;
+    private final byte[] flags;
+    // Cells that stopped being solid, as x + y * width, until the flow field catches up
+    private final IntArray openedCells = new IntArray();
+    // Bumped whenever a cell's tiles change, so caches built on the grid know to start over
+    private int version;
+
+    public TileGrid(TiledMapTileLayer mazeLayer, TiledMapTileLayer collisionLayer) {
+        this(mazeLayer, collisionLayer, null);
+    }
+
+    // Compiled maps come with their flags worked out already (see BinaryMapLoader); they are
+    // copied, so the map's own array stays as loaded
+    public TileGrid(TiledMapTileLayer mazeLayer, TiledMapTileLayer collisionLayer, byte[] precomputedFlags) {
+        this.mazeLayer = mazeLayer;
+        this.collisionLayer = collisionLayer;
+        this.width = collisionLayer.getWidth();
+        this.height = collisionLayer.getHeight();
+        this.tileWidth = collisionLayer.getTileWidth();
+        this.tileHeight = collisionLayer.getTileHeight();
+        this.flags = new byte[width * height];
+
+        if (precomputedFlags != null && precomputedFlags.length == flags.length) {
+            System.arraycopy(precomputedFlags, 0, flags, 0, flags.length);
+            return;
+        }
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                refresh(x, y);
+            }
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public float getTileWidth() {
+        return tileWidth;
+    }
+
+    public float getTileHeight() {
+        return tileHeight;
+    }
+
+    public boolean isInBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    public int getFlags(int x, int y) {
+        return isInBounds(x, y) ? flags[x + y * width] : OUT_OF_BOUNDS;
+    }
+
+    public boolean is(int x, int y, int flag) {
+        return (getFlags(x, y) & flag) != 0;
+    }
+
+    public boolean isSolid(int x, int y) {
+        return is(x, y, SOLID);
+    }
+
+    public void setBomb(int x, int y, boolean bomb) {
+        if (!isInBounds(x, y)) return;
+        int index = x + y * width;
+        flags[index] = (byte) (bomb ? flags[index] | BOMB : flags[index] & ~BOMB);
+    }
+
+    public void clearBombs() {
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] &= ~BOMB;
+        }
+    }
+
+    // Removes the destructible tiles on a cell from both layers and updates its flags.
+    // Returns false if there was nothing to destroy.
+    public boolean destroy(int x, int y) {
+        if (!is(x, y, DESTRUCTIBLE)) return false;
+        boolean wasSolid = isSolid(x, y);
+        clearDestructible(mazeLayer, x, y);
+        clearDestructible(collisionLayer, x, y);
+        refresh(x, y);
+        version++;
+        if (wasSolid && !isSolid(x, y)) {
+            openedCells.add(x + y * width);
+        }
+        return true;
+    }
+
+    // How many cells a blast could still clear
+    public int countDestructible() {
+        int count = 0;
+        for (byte cellFlags : flags) {
+            if ((cellFlags & DESTRUCTIBLE) != 0) count++;
+        }
+        return count;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public IntArray getOpenedCells() {
+        return openedCells;
+    }
+
+    private void refresh(int x, int y) {
+        int index = x + y * width;
+        int cellFlags = (flags[index] & BOMB) | tileFlags(mazeLayer, x, y) | tileFlags(collisionLayer, x, y);
+        if (tileAt(collisionLayer, x, y) != null) {
+            cellFlags |= SOLID;
+        }
+        flags[index] = (byte) cellFlags;
+    }
+
+    private static void clearDestructible(TiledMapTileLayer layer, int x, int y) {
+        if ((tileFlags(layer, x, y) & DESTRUCTIBLE) != 0) {
+            layer.setCell(x, y, null);
+        }
+    }
+
+    private static int tileFlags(TiledMapTileLayer layer, int x, int y) {
+        TiledMapTile tile = tileAt(layer, x, y);
+        if (tile == null) return 0;
+
+        int tileFlags = 0;
+        if (tile.getProperties().get("destructible", false, Boolean.class)) {
+            tileFlags |= DESTRUCTIBLE;
+        }
+        if (tile.getProperties().get("blocksBlast", false, Boolean.class)) {
+            tileFlags |= BLOCKS_BLAST;
+        }
+        return tileFlags;
+    }
+
+    private static TiledMapTile tileAt(TiledMapTileLayer layer, int x, int y) {
+        if (layer == null) return null;
+        TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+        return cell == null ? null : cell.getTile();
+    }
+}
@@ -0,0 +1,68 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+// Draws every sprite that lives in the world with one camera-projected batch. Sprites go out
+// in layer order, power-ups to enemies, and anything outside the camera's view is skipped. The
+// first four layers share the characters atlas, so a frame switches texture only once.
+public class WorldRenderer {
+    private final PlayerRenderer playerRenderer;
+    private final EnemyRenderer enemyRenderer;
+    private final BombRenderer bombRenderer;
+
+    private final Rectangle viewBounds = new Rectangle();
+
+    public static void queue(AssetManager assets) {
+        PlayerRenderer.queue(assets);
+        EnemyRenderer.queue(assets);
+        BombRenderer.queue(assets);
+    }
+
+    public WorldRenderer(AssetManager assets, Array<EnemyType> enemyTypes) {
+        playerRenderer = new PlayerRenderer(assets);
+        enemyRenderer = new EnemyRenderer(assets, enemyTypes);
+        bombRenderer = new BombRenderer(assets);
+    }
+
+    public void render(SpriteBatch batch, OrthographicCamera camera, GameWorld world, float alpha) {
+        float viewWidth = camera.viewportWidth * camera.zoom;
+        float viewHeight = camera.viewportHeight * camera.zoom;
+        viewBounds.set(camera.position.x - viewWidth / 2, camera.position.y - viewHeight / 2, viewWidth, viewHeight);
+
+        Array<Bomb> bombs = world.getBombs();
+        EnemyStore enemies = world.getEnemies();
+
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        TileGrid grid = world.getGrid();
+        IntArray powerUps = world.getPowerUps();
+        for (int i = 0; i < powerUps.size; i++) {
+            int x = powerUps.get(i) % grid.getWidth();
+            int y = powerUps.get(i) / grid.getWidth();
+            // Still under its block
+            if (grid.isSolid(x, y)) continue;
+            bombRenderer.renderPowerUp(batch, x, y, viewBounds);
+        }
+        for (int i = 0; i < bombs.size; i++) {
+            bombRenderer.renderBomb(batch, bombs.get(i), viewBounds);
+        }
+        playerRenderer.render(batch, world.getPlayer(), alpha, viewBounds);
+        for (int i = 0; i < bombs.size; i++) {
+            bombRenderer.renderBlast(batch, bombs.get(i), viewBounds);
+        }
+        for (int i = 0; i < enemies.size; i++) {
+            enemyRenderer.render(batch, enemies, i, alpha, viewBounds);
+        }
+        batch.end();
+    }
+
+    // True if the rectangle x, y, width, height overlaps the view at all
+    static boolean isVisible(Rectangle view, float x, float y, float width, float height) {
+        return x < view.x + view.width && x + width > view.x && y < view.y + view.height && y + height > view.y;
+    }
+}
@@ -0,0 +1,119 @@
+package com.mygdx.game;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Splits the enemy pass into equal ranges of slots run on a fork-join pool, for headless and
+// server simulations with thousands of enemies. Every enemy comes out the same as with
+// EnemyStore.SERIAL, whatever the thread count (see EnemyStore). Lives here rather than in core
+// because Android only has ForkJoinPool from API 21.
+//
+// The tasks are made once and reinitialized every tick. The calling thread updates the first
+// range itself and then parks until the last range finishes, rather than joining, since a
+// blocking join allocates a wait node.
+public class ForkJoinScheduler implements EnemyStore.Scheduler {
+    // Ranges smaller than this cost more to hand out than they take to update
+    private static final int MIN_RANGE = 512;
+    private static final int RANGES_PER_THREAD = 4; // So a thread that finishes early can take more
+
+    private final ForkJoinPool pool;
+    private final List<Thread> workers = new CopyOnWriteArrayList<>(); // Every thread the pool started
+    private final Range[] ranges;
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile Throwable failure;
+
+    private EnemyStore enemies;
+    private int rangeCount;
+    private Thread caller;
+
+    public ForkJoinScheduler(int threads) {
+        pool = new ForkJoinPool(threads, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            @Override
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                workers.add(thread);
+                return thread;
+            }
+        }, null, false);
+        ranges = new Range[threads * RANGES_PER_THREAD];
+        for (int i = 0; i < ranges.length; i++) {
+            ranges[i] = new Range(i);
+        }
+    }
+
+    @Override
+    public void update(EnemyStore enemies) {
+        int count = Math.min(ranges.length, enemies.size / MIN_RANGE);
+        if (count < 2) {
+            enemies.update(0, enemies.size);
+            return;
+        }
+        this.enemies = enemies;
+        this.rangeCount = count;
+        this.caller = Thread.currentThread();
+        pending.set(count - 1);
+        for (int i = 1; i < count; i++) {
+            ranges[i].reinitialize();
+            pool.execute(ranges[i]);
+        }
+        ranges[0].run();
+        while (pending.get() > 0) {
+            LockSupport.park(this);
+        }
+        // A task is marked done just after its compute() returns; it can't be reinitialized before
+        for (int i = 1; i < count; i++) {
+            while (!ranges[i].isDone()) {
+                Thread.yield();
+            }
+        }
+
+        this.enemies = null;
+        Throwable error = failure;
+        if (error != null) {
+            failure = null;
+            throw new RuntimeException("Enemy update failed", error);
+        }
+    }
+
+    // So --check-alloc can count what the ranges allocate on the pool's threads
+    public List<Thread> getWorkers() {
+        return workers;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private class Range extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+
+        Range(int index) {
+            this.index = index;
+        }
+
+        void run() {
+            int size = enemies.size;
+            enemies.update(size * index / rangeCount, size * (index + 1) / rangeCount);
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                run();
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                if (pending.decrementAndGet() == 0) {
+                    LockSupport.unpark(caller);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.AbsoluteFileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.PrefixFileHandleResolver;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.utils.Array;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.List;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+// Runs the game simulation without a window as fast as the CPU allows and reports ticks per second.
+//
+// Usage: HeadlessLauncher [--map map/map.tmx | --map map/compiled/map.bmap | --map 256] [--ticks 10000] [--enemies 2] [--bombs 0] [--seed 1] [--threads 1] [--check-alloc]
+// A numeric --map generates a square arena of that size instead of loading a TMX file.
+// --check-alloc warms up first, then fails (exit code 1) if steady-state ticks allocate a single
+// byte on this thread or the --threads workers. It defaults to 300 enemies and 40 bombs, so
+// blasts, chain reactions and enemies dodging them are all on the checked path. Run it through
+// gradle :headless:checkAlloc, which keeps the JIT to C1 (see headless/build.gradle).
+//
+// Or: HeadlessLauncher --replay replays/last.replay [--threads 1]
+// plays a match the game recorded (see ReplayRecorder) as fast as possible; the map comes from the replay.
+//
+// Either takes --jfr run.jfr to record the run with Java Flight Recorder, including the game's own
+// events (see JfrProbe), and write the recording to that file at the end.
+public class HeadlessLauncher {
+
+	// Set with --jfr; map file loads are only reported then
+	private static boolean reportMapFiles;
+
+	public static void main(String[] args) {
+		final String map = option(args, "--map", "map/map.tmx");
+		final int ticks = Integer.parseInt(option(args, "--ticks", "10000"));
+		final boolean checkAlloc = flag(args, "--check-alloc");
+		final int enemies = Integer.parseInt(option(args, "--enemies", checkAlloc ? "300" : "2"));
+		final int bombs = Integer.parseInt(option(args, "--bombs", checkAlloc ? "40" : "0"));
+		final long seed = Long.parseLong(option(args, "--seed", "1"));
+		final int threads = Integer.parseInt(option(args, "--threads", "1"));
+		final String replay = option(args, "--replay", null);
+		final String jfr = option(args, "--jfr", null);
+
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		new HeadlessApplication(new ApplicationAdapter() {
+			@Override
+			public void create() {
+				EventLog.start(new EventLog.GdxSink());
+				Recording recording = jfr == null ? null : startRecording();
+				GameProbe probe = recording == null ? null : new JfrProbe();
+				if (replay != null) {
+					runReplay(replay, threads, probe);
+					stopRecording(recording, jfr);
+					EventLog.stop();
+					Gdx.app.exit();
+					return;
+				}
+
+				TiledMap tiledMap = loadMap(map, seed);
+				SimulationScenario scenario = new SimulationScenario(tiledMap, enemies, bombs, seed, probe);
+				ForkJoinScheduler scheduler = null;
+				if (threads > 1) {
+					scheduler = new ForkJoinScheduler(threads);
+					scenario.getWorld().setScheduler(scheduler);
+				}
+
+				if (checkAlloc) {
+					checkAllocations(scenario, ticks, scheduler);
+				}
+
+				long start = System.nanoTime();
+				for (int i = 0; i < ticks; i++) {
+					scenario.tick();
+				}
+				long elapsed = System.nanoTime() - start;
+
+				double seconds = elapsed / 1e9;
+				Gdx.app.log("Headless", ticks + " ticks on " + map + " with " + enemies + " enemies and " + bombs
+						+ " bombs in " + String.format("%.3f", seconds) + " s (" + String.format("%.0f", ticks / seconds)
+						+ " ticks/s, " + String.format("%.1f", ticks * SimulationScenario.STEP / seconds) + "x real time, "
+						+ threads + " thread(s))");
+				// Equal for equal arguments whatever the thread count
+				Gdx.app.log("Headless", "State hash " + Long.toHexString(stateHash(scenario.getWorld())));
+
+				if (scheduler != null) {
+					scheduler.shutdown();
+				}
+
+				tiledMap.dispose();
+				stopRecording(recording, jfr);
+				EventLog.stop();
+				Gdx.app.exit();
+			}
+		}, config);
+	}
+
+	private static void runReplay(String path, int threads, GameProbe probe) {
+		ReplayRunner runner = new ReplayRunner(new ReplayReader(new FileHandle(new File(path))), probe);
+		ForkJoinScheduler scheduler = null;
+		if (threads > 1) {
+			scheduler = new ForkJoinScheduler(threads);
+			runner.getWorld().setScheduler(scheduler);
+		}
+		runner.run();
+		if (scheduler != null) {
+			scheduler.shutdown();
+		}
+		runner.dispose();
+	}
+
+	// The JDK's default settings plus every game event
+	private static Recording startRecording() {
+		Recording recording;
+		try {
+			recording = new Recording(Configuration.getConfiguration("default"));
+		} catch (IOException | ParseException e) {
+			Gdx.app.error("Headless", "Could not read the default JFR settings", e);
+			recording = new Recording();
+		}
+		JfrProbe.enableEvents(recording);
+		recording.setName("BoomGame");
+		recording.start();
+		reportMapFiles = true;
+		return recording;
+	}
+
+	private static void stopRecording(Recording recording, String file) {
+		if (recording == null) return;
+		recording.stop();
+		try {
+			recording.dump(Paths.get(file));
+			Gdx.app.log("Headless", "Flight recording written to " + Paths.get(file).toAbsolutePath());
+		} catch (IOException e) {
+			Gdx.app.error("Headless", "Could not write the flight recording to " + file, e);
+		}
+		recording.close();
+		reportMapFiles = false;
+	}
+
+	// Ticks once to warm up and once more while counting the allocations of this thread and the
+	// scheduler's workers. The total is judged, not a per-tick average: growth that only happens
+	// now and then (an array meeting a bigger crowd) is exactly what an average would hide.
+	private static void checkAllocations(SimulationScenario scenario, int ticks, ForkJoinScheduler scheduler) {
+		for (int i = 0; i < ticks; i++) {
+			scenario.tick();
+		}
+
+		// Every worker has started by now
+		long[] ids = threadIds(scheduler);
+		allocatedBytes(ids);
+		long overhead = allocatedBytes(ids);
+		overhead = allocatedBytes(ids) - overhead;
+		long before = allocatedBytes(ids);
+		for (int i = 0; i < ticks; i++) {
+			scenario.tick();
+		}
+		long allocated = allocatedBytes(ids) - before - overhead;
+
+		Gdx.app.log("Headless", allocated + " bytes allocated over " + ticks + " steady-state ticks");
+		if (allocated != 0) {
+			Gdx.app.error("Headless", "Steady-state ticks must not allocate");
+			System.exit(1);
+		}
+	}
+
+	// Hashes where every enemy and the player are and what they are doing
+	static long stateHash(GameWorld world) {
+		EnemyStore enemies = world.getEnemies();
+		long hash = enemies.size;
+		for (int i = 0; i < enemies.size; i++) {
+			hash = hash * 31 + Float.floatToIntBits(enemies.getX(i));
+			hash = hash * 31 + Float.floatToIntBits(enemies.getY(i));
+			hash = hash * 31 + enemies.getState(i);
+		}
+		hash = hash * 31 + Float.floatToIntBits(world.getPlayer().getPosition().x);
+		hash = hash * 31 + Float.floatToIntBits(world.getPlayer().getPosition().y);
+		return hash;
+	}
+
+	// This thread and, if there is a scheduler, the threads its pool started
+	private static long[] threadIds(ForkJoinScheduler scheduler) {
+		List<Thread> workers = scheduler != null ? scheduler.getWorkers() : Collections.<Thread>emptyList();
+		long[] ids = new long[1 + workers.size()];
+		ids[0] = Thread.currentThread().getId();
+		for (int i = 0; i < workers.size(); i++) {
+			ids[i + 1] = workers.get(i).getId();
+		}
+		return ids;
+	}
+
+	private static long allocatedBytes(long[] ids) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long[] bytes = threads.getThreadAllocatedBytes(ids);
+		long allocated = 0;
+		for (int i = 0; i < bytes.length; i++) {
+			allocated += Math.max(bytes[i], 0); // -1 once a worker exits
+		}
+		return allocated;
+	}
+
+	// Makes sure Gdx.app, Gdx.files etc. are set, for callers that drive the world themselves
+	public static void ensureBackend() {
+		if (Gdx.app == null) {
+			new HeadlessApplication(new ApplicationAdapter() {});
+		}
+	}
+
+	// Loads a TMX or compiled .bmap map, or generates a square arena when the name is a number. Map
+	// files, like the enemy types, are read from the directory in the boom.assets system property
+	// if set, otherwise from internal files.
+	public static TiledMap loadMap(String map, long seed) {
+		JfrProbe.MapFileLoadEvent event = reportMapFiles ? JfrProbe.beginMapFile(map) : null;
+		TiledMap tiledMap = readMap(map, seed);
+		if (event != null) event.commit();
+		return tiledMap;
+	}
+
+	private static TiledMap readMap(String map, long seed) {
+		if (map.matches("\\d+")) {
+			int size = Integer.parseInt(map);
+			return MapGenerator.generate(size, size, seed);
+		}
+		FileHandleResolver resolver = assetResolver();
+		if (map.endsWith(".bmap")) {
+			return BinaryMapLoader.load(resolver.resolve(map), null);
+		}
+		return new HeadlessTmxMapLoader(resolver).load(map);
+	}
+
+	public static Array<EnemyType> loadEnemyTypes() {
+		return EnemyType.load(assetResolver().resolve(EnemyType.FILE));
+	}
+
+	private static FileHandleResolver assetResolver() {
+		String assets = System.getProperty("boom.assets");
+		return assets == null
+				? new InternalFileHandleResolver()
+				: new PrefixFileHandleResolver(new AbsoluteFileHandleResolver(), assets + "/");
+	}
+
+	private static boolean flag(String[] args, String name) {
+		for (String arg : args) {
+			if (arg.equals(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String option(String[] args, String name, String defaultValue) {
+		for (int i = 0; i < args.length - 1; i++) {
+			if (args[i].equals(name)) {
+				return args[i + 1];
+			}
+		}
+		return defaultValue;
+	}
+}
@@ -0,0 +1,30 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.ImageResolver;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+
+// Loads a TMX map without creating any textures, so it works without a GL context.
+// Layers, tile ids and properties are the same as with TmxMapLoader; tile regions are null.
+// Only collection-of-images tilesets are supported (the tileset type our maps use).
+public class HeadlessTmxMapLoader extends TmxMapLoader {
+
+    public HeadlessTmxMapLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    @Override
+    public TiledMap load(String fileName, Parameters parameter) {
+        FileHandle tmxFile = resolve(fileName);
+        this.root = xml.parse(tmxFile);
+        return loadTiledMap(tmxFile, parameter, new ImageResolver() {
+            @Override
+            public TextureRegion getImage(String name) {
+                return null;
+            }
+        });
+    }
+}
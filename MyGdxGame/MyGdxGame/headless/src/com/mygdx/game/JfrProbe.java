@@ -0,0 +1,202 @@
+package com.mygdx.game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+
+// Reports the simulation as Java Flight Recorder events, so one recording shows which phase of
+// which tick a slow tick spent its time in, and what the explosions in it did. Needs a JVM with
+// JFR (11+, or 8u262+). Start it with --jfr <file> on the headless launcher, or pass one to
+// MyGdxGame.setProbe() in a desktop launcher.
+//
+// One event of each kind is made up front and reused, so ticks don't allocate with the probe on;
+// end() is called explicitly because a reused event would otherwise keep its first duration.
+// The calls are cheap no-ops while no recording has the events enabled. Not thread safe: the
+// world calls it from the thread running the tick.
+public class JfrProbe implements GameProbe {
+    private static final String[] PHASES = {"pathfinding", "enemies", "bombs"};
+
+    @Name("boom.Tick")
+    @Label("Tick")
+    @Category({"Boom", "Simulation"})
+    @StackTrace(false)
+    static class TickEvent extends Event {
+        @Label("Tick")
+        int tick;
+        @Label("Enemies")
+        int enemies;
+        @Label("Bombs")
+        int bombs;
+    }
+
+    @Name("boom.TickPhase")
+    @Label("Tick Phase")
+    @Description("Pathfinding covers the flow field and line of sight the enemies share")
+    @Category({"Boom", "Simulation"})
+    @StackTrace(false)
+    static class PhaseEvent extends Event {
+        @Label("Tick")
+        int tick;
+        @Label("Phase")
+        String phase;
+    }
+
+    @Name("boom.Explosion")
+    @Label("Explosion")
+    @Category({"Boom", "Simulation"})
+    @StackTrace(false)
+    static class ExplosionEvent extends Event {
+        @Label("Tile X")
+        int tileX;
+        @Label("Tile Y")
+        int tileY;
+        @Label("Cells Destroyed")
+        int cellsDestroyed;
+        @Label("Enemies Hit")
+        int enemiesHit;
+    }
+
+    @Name("boom.MapLoad")
+    @Label("Map Load")
+    @Description("Setting up the world for a map; reading the map file is a separate event")
+    @Category({"Boom", "Loading"})
+    static class MapLoadEvent extends Event {
+        @Label("Map")
+        String map;
+        @Label("Width")
+        int width;
+        @Label("Height")
+        int height;
+    }
+
+    @Name("boom.MapFileLoad")
+    @Label("Map File Load")
+    @Category({"Boom", "Loading"})
+    static class MapFileLoadEvent extends Event {
+        @Label("Map")
+        String map;
+    }
+
+    @Name("boom.GameState")
+    @Label("Game State Change")
+    @Category("Boom")
+    @StackTrace(false)
+    static class StateEvent extends Event {
+        @Label("From")
+        String from;
+        @Label("To")
+        String to;
+    }
+
+    private final TickEvent tickEvent = new TickEvent();
+    private final PhaseEvent[] phaseEvents = new PhaseEvent[PHASES.length];
+    private final ExplosionEvent explosionEvent = new ExplosionEvent();
+    private final MapLoadEvent mapLoadEvent = new MapLoadEvent();
+    private final StateEvent stateEvent = new StateEvent();
+    private int tick;
+
+    public JfrProbe() {
+        for (int i = 0; i < phaseEvents.length; i++) {
+            phaseEvents[i] = new PhaseEvent();
+            phaseEvents[i].phase = PHASES[i];
+        }
+    }
+
+    // Turns on every game event in the recording, with no threshold so every tick is kept
+    public static void enableEvents(Recording recording) {
+        recording.enable(TickEvent.class).withoutThreshold();
+        recording.enable(PhaseEvent.class).withoutThreshold();
+        recording.enable(ExplosionEvent.class).withoutThreshold();
+        recording.enable(MapLoadEvent.class).withoutThreshold();
+        recording.enable(MapFileLoadEvent.class).withoutThreshold();
+        recording.enable(StateEvent.class).withoutThreshold();
+    }
+
+    // Reading a map file happens outside the world, in the launcher
+    public static MapFileLoadEvent beginMapFile(String map) {
+        MapFileLoadEvent event = new MapFileLoadEvent();
+        event.map = map;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void beginTick(int tick) {
+        this.tick = tick;
+        tickEvent.begin();
+    }
+
+    @Override
+    public void endTick(int tick, int enemies, int bombs) {
+        tickEvent.end();
+        if (tickEvent.shouldCommit()) {
+            tickEvent.tick = tick;
+            tickEvent.enemies = enemies;
+            tickEvent.bombs = bombs;
+            tickEvent.commit();
+        }
+    }
+
+    @Override
+    public void beginPhase(int phase) {
+        phaseEvents[phase].begin();
+    }
+
+    @Override
+    public void endPhase(int phase) {
+        PhaseEvent event = phaseEvents[phase];
+        event.end();
+        if (event.shouldCommit()) {
+            event.tick = tick;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void beginExplosion() {
+        explosionEvent.begin();
+    }
+
+    @Override
+    public void endExplosion(int tileX, int tileY, int cellsDestroyed, int enemiesHit) {
+        explosionEvent.end();
+        if (explosionEvent.shouldCommit()) {
+            explosionEvent.tileX = tileX;
+            explosionEvent.tileY = tileY;
+            explosionEvent.cellsDestroyed = cellsDestroyed;
+            explosionEvent.enemiesHit = enemiesHit;
+            explosionEvent.commit();
+        }
+    }
+
+    @Override
+    public void beginMapLoad() {
+        mapLoadEvent.begin();
+    }
+
+    @Override
+    public void endMapLoad(String map, int width, int height) {
+        mapLoadEvent.end();
+        if (mapLoadEvent.shouldCommit()) {
+            mapLoadEvent.map = map;
+            mapLoadEvent.width = width;
+            mapLoadEvent.height = height;
+            mapLoadEvent.commit();
+        }
+    }
+
+    @Override
+    public void stateChanged(String from, String to) {
+        if (stateEvent.isEnabled()) {
+            stateEvent.begin();
+            stateEvent.end();
+            stateEvent.from = from;
+            stateEvent.to = to;
+            stateEvent.commit();
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.loaders.resolvers.AbsoluteFileHandleResolver;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.XmlReader;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+// Compiles every TMX map in a directory into the binary format BinaryMapLoader reads (the
+// layout is described there). Run by gradle :headless:compileMaps.
+//
+// Usage: MapCompiler <tmx directory> <output directory>
+// Only collection-of-images tilesets are supported, as with HeadlessTmxMapLoader; maps using
+// a tileset image are skipped. Tiles keep the "destructible" and "blocksBlast" properties, and
+// objects with a type (or else a name) become spawn points, with all their properties.
+public class MapCompiler {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    public static void main(final String[] args) {
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                try {
+                    compileAll(Gdx.files.absolute(args[0]), Gdx.files.absolute(args[1]));
+                } catch (Exception e) {
+                    Gdx.app.error("MapCompiler", "Compiling maps failed", e);
+                    System.exit(1);
+                }
+                Gdx.app.exit();
+            }
+        }, new HeadlessApplicationConfiguration());
+    }
+
+    public static void compileAll(FileHandle inputDir, FileHandle outputDir) throws IOException {
+        outputDir.mkdirs();
+        for (FileHandle tmx : inputDir.list(".tmx")) {
+            IntMap<String> images = readTileImages(tmx);
+            if (images == null) {
+                Gdx.app.log("MapCompiler", "Skipped " + tmx.name() + ": it uses a tileset image");
+                continue;
+            }
+            FileHandle output = outputDir.child(tmx.nameWithoutExtension() + ".bmap");
+            TiledMap map = new HeadlessTmxMapLoader(new AbsoluteFileHandleResolver()).load(tmx.path());
+            try {
+                compile(map, images, tmx, output);
+            } finally {
+                map.dispose();
+            }
+            Gdx.app.log("MapCompiler", tmx.name() + " -> " + output.name() + " (" + output.length() + " bytes)");
+        }
+    }
+
+    // The image of every tile by tile id, or null if a tileset is one image cut into tiles
+    private static IntMap<String> readTileImages(FileHandle tmx) {
+        IntMap<String> images = new IntMap<>();
+        XmlReader.Element root = new XmlReader().parse(tmx);
+        for (XmlReader.Element tileSet : root.getChildrenByName("tileset")) {
+            int firstId = tileSet.getIntAttribute("firstgid", 1);
+            // External tilesets live in their own .tsx file
+            String source = tileSet.getAttribute("source", null);
+            XmlReader.Element definition = source == null ? tileSet : new XmlReader().parse(tmx.parent().child(source));
+            if (definition.getChildByName("image") != null) {
+                return null;
+            }
+            for (XmlReader.Element tile : definition.getChildrenByName("tile")) {
+                XmlReader.Element image = tile.getChildByName("image");
+                if (image != null) {
+                    // Named the way AtlasTmxMapLoader names regions: the image path without extension
+                    String path = image.getAttribute("source");
+                    images.put(firstId + tile.getIntAttribute("id"), path.substring(0, path.lastIndexOf('.')));
+                }
+            }
+        }
+        return images;
+    }
+
+    private static void compile(TiledMap map, IntMap<String> images, FileHandle tmx, FileHandle output) throws IOException {
+        MapProperties properties = map.getProperties();
+        int width = properties.get("width", Integer.class);
+        int height = properties.get("height", Integer.class);
+        int tileWidth = properties.get("tilewidth", Integer.class);
+        int tileHeight = properties.get("tileheight", Integer.class);
+
+        DataOutputStream out = new DataOutputStream(output.write(false, 8192));
+        try {
+            out.writeInt(BinaryMapLoader.MAGIC);
+            out.writeShort(BinaryMapLoader.VERSION);
+            writeProperties(out, properties, tmx, output);
+
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(tileWidth);
+            out.writeInt(tileHeight);
+
+            int tileSetCount = 0;
+            for (TiledMapTileSet tileSet : map.getTileSets()) tileSetCount++;
+            out.writeShort(tileSetCount);
+            for (TiledMapTileSet tileSet : map.getTileSets()) {
+                int firstId = tileSet.getProperties().get("firstgid", Integer.class);
+                writeString(out, tileSet.getName() == null ? "" : tileSet.getName());
+                out.writeInt(firstId);
+                out.writeShort(tileSet.size());
+                for (TiledMapTile tile : tileSet) {
+                    out.writeShort(tile.getId() - firstId);
+                    writeString(out, images.get(tile.getId(), ""));
+                    out.writeByte(tileFlags(tile));
+                }
+            }
+
+            int layerCount = 0;
+            for (MapLayer layer : map.getLayers()) {
+                if (layer instanceof TiledMapTileLayer) layerCount++;
+            }
+            out.writeShort(layerCount);
+            for (MapLayer mapLayer : map.getLayers()) {
+                if (!(mapLayer instanceof TiledMapTileLayer)) continue;
+                TiledMapTileLayer layer = (TiledMapTileLayer) mapLayer;
+                writeString(out, layer.getName());
+                out.writeByte(layer.isVisible() ? 1 : 0);
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        out.writeShort(tileId(layer, x, y));
+                    }
+                }
+            }
+
+            TiledMapTileLayer maze = (TiledMapTileLayer) map.getLayers().get("Maze");
+            TiledMapTileLayer collision = (TiledMapTileLayer) map.getLayers().get("Collision");
+            if (collision == null) {
+                out.writeInt(0);
+            } else {
+                TileGrid grid = new TileGrid(maze, collision);
+                out.writeInt(width * height);
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        out.writeByte(grid.getFlags(x, y));
+                    }
+                }
+            }
+
+            writeSpawns(out, map, tileWidth, tileHeight);
+        } finally {
+            out.close();
+        }
+    }
+
+    // Map properties pass the source and output file so the atlas path can be rebased; object properties pass null
+    private static void writeProperties(DataOutputStream out, MapProperties properties, FileHandle tmx, FileHandle output) throws IOException {
+        int count = 0;
+        for (Iterator<Object> values = properties.getValues(); values.hasNext(); ) {
+            if (isSupported(values.next())) count++;
+        }
+        out.writeShort(count);
+
+        for (Iterator<String> keys = properties.getKeys(); keys.hasNext(); ) {
+            String key = keys.next();
+            Object value = properties.get(key);
+            if (!isSupported(value)) continue;
+            // The atlas path is relative to the map, and the compiled map lives elsewhere
+            if (key.equals("atlas") && tmx != null) {
+                value = rebase((String) value, tmx, output);
+            }
+            writeString(out, key);
+            if (value instanceof String) {
+                out.writeByte(BinaryMapLoader.STRING);
+                writeString(out, (String) value);
+            } else if (value instanceof Integer) {
+                out.writeByte(BinaryMapLoader.INT);
+                out.writeInt((Integer) value);
+            } else if (value instanceof Float) {
+                out.writeByte(BinaryMapLoader.FLOAT);
+                out.writeFloat((Float) value);
+            } else {
+                out.writeByte(BinaryMapLoader.BOOLEAN);
+                out.writeByte((Boolean) value ? 1 : 0);
+            }
+        }
+    }
+
+    private static boolean isSupported(Object value) {
+        return value instanceof String || value instanceof Integer || value instanceof Float || value instanceof Boolean;
+    }
+
+    private static String rebase(String path, FileHandle from, FileHandle to) {
+        Path target = from.file().getAbsoluteFile().getParentFile().toPath().resolve(path).normalize();
+        Path relative = to.file().getAbsoluteFile().getParentFile().toPath().relativize(target);
+        return relative.toString().replace('\\', '/');
+    }
+
+    private static void writeSpawns(DataOutputStream out, TiledMap map, int tileWidth, int tileHeight) throws IOException {
+        int count = 0;
+        for (MapLayer layer : map.getLayers()) {
+            for (MapObject object : layer.getObjects()) {
+                if (spawnType(object) != null) count++;
+            }
+        }
+        out.writeShort(count);
+
+        for (MapLayer layer : map.getLayers()) {
+            for (MapObject object : layer.getObjects()) {
+                String type = spawnType(object);
+                if (type == null) continue;
+                writeString(out, type);
+                out.writeShort((int) (object.getProperties().get("x", 0f, Float.class) / tileWidth));
+                out.writeShort((int) (object.getProperties().get("y", 0f, Float.class) / tileHeight));
+                writeProperties(out, object.getProperties(), null, null);
+            }
+        }
+    }
+
+    private static String spawnType(MapObject object) {
+        String type = object.getProperties().get("type", String.class);
+        return type != null ? type : object.getName();
+    }
+
+    private static int tileFlags(TiledMapTile tile) {
+        int flags = 0;
+        if (tile.getProperties().get("destructible", false, Boolean.class)) {
+            flags |= TileGrid.DESTRUCTIBLE;
+        }
+        if (tile.getProperties().get("blocksBlast", false, Boolean.class)) {
+            flags |= TileGrid.BLOCKS_BLAST;
+        }
+        return flags;
+    }
+
+    private static int tileId(TiledMapTileLayer layer, int x, int y) {
+        TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+        if (cell == null || cell.getTile() == null) return 0;
+        if (cell.getFlipHorizontally() || cell.getFlipVertically() || cell.getRotation() != 0) {
+            throw new IllegalArgumentException("Flipped or rotated tile at " + x + ", " + y + " in layer " + layer.getName());
+        }
+        int id = cell.getTile().getId();
+        if (id > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Tile id " + id + " does not fit the compiled format");
+        }
+        return id;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(UTF8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,96 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.RandomXS128;
+
+// Builds arena maps of any size with the same layers and tile ids as map.tmx: a solid border,
+// a grid of solid pillars and randomly scattered destructible blocks. Tiles carry the same
+// "destructible"/"blocksBlast" properties as the map.tmx tileset. Tiles have no texture,
+// so generated maps are for the headless simulation only.
+public class MapGenerator {
+    public static final int TILE_SIZE = 32;
+
+    // Tile ids as used in map.tmx
+    public static final int GROUND = 1;
+    public static final int DESTRUCTIBLE = 3;
+    public static final int WALL = 4;
+
+    private static final float DESTRUCTIBLE_CHANCE = 0.25f;
+
+    public static TiledMap generate(int width, int height, long seed) {
+        RandomXS128 random = new RandomXS128(seed);
+        TiledMap map = new TiledMap();
+
+        TiledMapTileSet tileSet = new TiledMapTileSet();
+        tileSet.setName("Terrain");
+        for (int id = 1; id <= 8; id++) {
+            TiledMapTile tile = new StaticTiledMapTile((TextureRegion) null);
+            tile.setId(id);
+            if (id == 2 || id == DESTRUCTIBLE || id == 7) {
+                tile.getProperties().put("destructible", true);
+            } else if (id == WALL) {
+                tile.getProperties().put("blocksBlast", true);
+            }
+            tileSet.putTile(id, tile);
+        }
+        map.getTileSets().addTileSet(tileSet);
+
+        TiledMapTileLayer ground = new TiledMapTileLayer(width, height, TILE_SIZE, TILE_SIZE);
+        ground.setName("Ground");
+        TiledMapTileLayer maze = new TiledMapTileLayer(width, height, TILE_SIZE, TILE_SIZE);
+        maze.setName("Maze");
+        TiledMapTileLayer collision = new TiledMapTileLayer(width, height, TILE_SIZE, TILE_SIZE);
+        collision.setName("Collision");
+        collision.setVisible(false);
+
+        for (int y = 0; y < height; y++) {
+            // Count rows from the top like Tiled does, so the pillars line up with map.tmx
+            int row = height - 1 - y;
+            for (int x = 0; x < width; x++) {
+                ground.setCell(x, y, cell(tileSet, GROUND));
+
+                int id = 0;
+                if (x == 0 || y == 0 || x == width - 1 || y == height - 1) {
+                    id = WALL;
+                } else if (x % 2 == 0 && row % 2 == 0) {
+                    id = WALL;
+                } else if (!isStartArea(x, y) && random.nextFloat() < DESTRUCTIBLE_CHANCE) {
+                    id = DESTRUCTIBLE;
+                }
+                if (id != 0) {
+                    maze.setCell(x, y, cell(tileSet, id));
+                    collision.setCell(x, y, cell(tileSet, id));
+                }
+            }
+        }
+
+        map.getLayers().add(ground);
+        map.getLayers().add(maze);
+        map.getLayers().add(collision);
+
+        MapProperties properties = map.getProperties();
+        properties.put("mapName", "generated");
+        properties.put("width", width);
+        properties.put("height", height);
+        properties.put("tilewidth", TILE_SIZE);
+        properties.put("tileheight", TILE_SIZE);
+        return map;
+    }
+
+    // Keep the player's spawn and its neighbours open
+    private static boolean isStartArea(int x, int y) {
+        return Math.abs(x - GameWorld.PLAYER_START_X) + Math.abs(y - GameWorld.PLAYER_START_Y) <= 1;
+    }
+
+    private static TiledMapTileLayer.Cell cell(TiledMapTileSet tileSet, int id) {
+        TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+        cell.setTile(tileSet.getTile(id));
+        return cell;
+    }
+}
@@ -0,0 +1,90 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.utils.IntArray;
+
+// Plays a match recorded by the game (see ReplayRecorder) through the simulation as fast as it
+// will go: the same map, seed, destroyed cells and per-tick input give the same match. Counts
+// what happened on the way, so a bug report can be checked against it.
+public class ReplayRunner implements GameWorld.Listener {
+    private final ReplayReader replay;
+    private final TiledMap map;
+    private final GameWorld world;
+    private final PlayerInput input = new PlayerInput();
+
+    private int bombsPlaced;
+    private int cellsDestroyed;
+    private int playerKilledTick = -1;
+    private int levelClearedTick = -1;
+
+    // The probe may be null
+    public ReplayRunner(ReplayReader replay, GameProbe probe) {
+        this.replay = replay;
+        this.map = HeadlessLauncher.loadMap(replay.getMap(), replay.getSeed());
+        this.world = new GameWorld(this, HeadlessLauncher.loadEnemyTypes());
+        world.setProbe(probe);
+        world.setMap(map);
+
+        // Break what was already broken when the match started
+        int width = world.getGrid().getWidth();
+        IntArray cells = replay.getDestroyedCells();
+        for (int i = 0; i < cells.size; i++) {
+            world.destroyCell(cells.get(i) % width, cells.get(i) / width);
+        }
+        cellsDestroyed = 0;
+        world.reset(replay.getSeed());
+    }
+
+    // Runs every tick of the match and logs the outcome
+    public void run() {
+        // The same expression as GameClock's, so every step is the same float
+        float step = 1.0f / replay.getTickRate();
+        long start = System.nanoTime();
+        while (replay.next(input)) {
+            world.update(step, input);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int ticks = replay.getTickCount();
+        Gdx.app.log("Replay", ticks + " ticks of " + replay.getMap() + " (seed " + replay.getSeed() + ") in "
+                + String.format("%.3f", seconds) + " s (" + String.format("%.0f", ticks / seconds) + " ticks/s)");
+        Gdx.app.log("Replay", bombsPlaced + " bombs placed, " + cellsDestroyed + " cells destroyed, "
+                + world.getEnemies().size + " enemies left, " + world.getPlayer().getLives() + " lives left"
+                + (playerKilledTick >= 0 ? ", game over at tick " + playerKilledTick : "")
+                + (levelClearedTick >= 0 ? ", level cleared at tick " + levelClearedTick : ""));
+        Gdx.app.log("Replay", "State hash " + Long.toHexString(HeadlessLauncher.stateHash(world)));
+    }
+
+    public GameWorld getWorld() {
+        return world;
+    }
+
+    public void dispose() {
+        map.dispose();
+    }
+
+    @Override
+    public void onBombPlaced(Bomb bomb) {
+        bombsPlaced++;
+    }
+
+    @Override
+    public void onBombExploded(Bomb bomb) {
+    }
+
+    @Override
+    public void onCellDestroyed(int tileX, int tileY) {
+        cellsDestroyed++;
+    }
+
+    @Override
+    public void onPlayerKilled() {
+        if (playerKilledTick < 0) playerKilledTick = replay.getTick();
+    }
+
+    @Override
+    public void onLevelCleared(String mapName) {
+        if (levelClearedTick < 0) levelClearedTick = replay.getTick();
+    }
+}
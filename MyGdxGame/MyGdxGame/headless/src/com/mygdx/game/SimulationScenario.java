@@ -0,0 +1,94 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.math.RandomXS128;
+
+// A world plus the bookkeeping a headless run needs. Enemies and bombs are topped up to a
+// fixed count before every tick so the load stays constant however long it runs; the map's
+// spawn points are switched off so they don't add waves on top.
+public class SimulationScenario implements GameWorld.Listener {
+    public static final float STEP = 1.0f / MyGdxGame.TICK_RATE;
+
+    private static final int MAX_PLACEMENT_ATTEMPTS = 64;
+
+    private final GameWorld world;
+    private final PlayerInput input;
+    private final RandomXS128 random;
+    private final int enemyCount;
+    private final int bombCount;
+
+    public SimulationScenario(TiledMap map, int enemyCount, int bombCount, long seed) {
+        this(map, enemyCount, bombCount, seed, null);
+    }
+
+    // The probe, if any, sees the map load too
+    public SimulationScenario(TiledMap map, int enemyCount, int bombCount, long seed, GameProbe probe) {
+        this.world = new GameWorld(this, HeadlessLauncher.loadEnemyTypes());
+        world.setProbe(probe);
+        this.input = new PlayerInput();
+        this.random = new RandomXS128(seed);
+        this.enemyCount = enemyCount;
+        this.bombCount = bombCount;
+
+        world.setMap(map);
+        world.setSpawning(false);
+        world.reset(seed);
+    }
+
+    public void tick() {
+        TileGrid grid = world.getGrid();
+        while (world.getEnemies().size < enemyCount) {
+            int cell = findOpenCell(grid);
+            if (cell < 0) break;
+            world.spawnEnemy(cell % grid.getWidth(), cell / grid.getWidth());
+        }
+        while (world.getBombs().size < bombCount) {
+            int cell = findOpenCell(grid);
+            if (cell < 0) break;
+            world.placeBomb(cell % grid.getWidth(), cell / grid.getWidth());
+        }
+        world.update(STEP, input);
+    }
+
+    // Returns a random walkable cell without a bomb as x + y * width, or -1 if none was found
+    private int findOpenCell(TileGrid grid) {
+        for (int i = 0; i < MAX_PLACEMENT_ATTEMPTS; i++) {
+            int x = random.nextInt(grid.getWidth());
+            int y = random.nextInt(grid.getHeight());
+            if (!grid.is(x, y, TileGrid.SOLID | TileGrid.BOMB)) {
+                return x + y * grid.getWidth();
+            }
+        }
+        return -1;
+    }
+
+    public GameWorld getWorld() {
+        return world;
+    }
+
+    public PlayerInput getInput() {
+        return input;
+    }
+
+    @Override
+    public void onBombPlaced(Bomb bomb) {
+    }
+
+    @Override
+    public void onBombExploded(Bomb bomb) {
+    }
+
+    @Override
+    public void onCellDestroyed(int tileX, int tileY) {
+    }
+
+    @Override
+    public void onPlayerKilled() {
+        // Keep the player alive so a run is never cut short by a game over
+        world.getPlayer().lives = GameWorld.PLAYER_LIVES;
+    }
+
+    @Override
+    public void onLevelCleared(String mapName) {
+    }
+}